@@ -0,0 +1,63 @@
+package uk.gov.dwp.jsa.bankdetails.service.benchmark;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.DataKeyCache;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.LocalDataKeyProvider;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+import uk.gov.dwp.jsa.security.encryption.EncryptionStrategy;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * Shared inputs for the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private static final int MASTER_KEY_BYTES = 32;
+
+    private BenchmarkFixtures() {
+    }
+
+    static BankDetailsRequest bankDetailsRequest() {
+        final BankDetailsRequest request = new BankDetailsRequest();
+        request.setAccountHolder("Mr Account Holder");
+        request.setAccountNumber("12345678");
+        request.setSortCode("112233");
+        request.setReference("ROLL-NUMBER-1");
+        request.setServiceVersion("1");
+        return request;
+    }
+
+    /**
+     * Local AES-GCM encryption under a cached data key, so the benchmarks measure the cipher and JSON work
+     * without calling KMS.
+     */
+    static ObjectProvider<DataKeyCache> localDataKeyCache() {
+        final byte[] masterKey = new byte[MASTER_KEY_BYTES];
+        new SecureRandom().nextBytes(masterKey);
+        final DataKeyCache cache = new DataKeyCache(
+                new LocalDataKeyProvider(masterKey), Duration.ofDays(1), Long.MAX_VALUE);
+        return new StaticListableBeanFactory(Collections.singletonMap("dataKeyCache", cache))
+                .getBeanProvider(DataKeyCache.class);
+    }
+
+    /**
+     * Strategy for values written before the data-key cache, which the benchmarks never produce.
+     */
+    static EncryptionStrategy noLegacyValues() {
+        return new EncryptionStrategy() {
+            @Override
+            public String encrypt(final String value) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String decrypt(final String value) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
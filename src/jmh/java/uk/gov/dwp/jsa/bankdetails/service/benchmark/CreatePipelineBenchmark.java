@@ -0,0 +1,103 @@
+package uk.gov.dwp.jsa.bankdetails.service.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.jsa.bankdetails.service.Application;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.BankDetailsRequestJsonEncryption;
+import uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsResponse;
+import uk.gov.dwp.jsa.bankdetails.service.services.JsonDigest;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stages of the create and read paths: serialising the request, hashing it, encrypting and decrypting the
+ * stored document, and building the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreatePipelineBenchmark {
+
+    @Param({"false", "true"})
+    private boolean singleEnvelope;
+
+    private ObjectMapper mapper;
+    private BankDetailsRequestJsonEncryption encryption;
+    private BankDetailsRequest request;
+    private String requestJson;
+    private String storedJson;
+    private BankDetails bankDetails;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        mapper = new Application().objectMapper();
+        encryption = new BankDetailsRequestJsonEncryption(
+                BenchmarkFixtures.noLegacyValues(), mapper, BenchmarkFixtures.localDataKeyCache(), true,
+                singleEnvelope, PipelineTimings.disabled());
+        request = BenchmarkFixtures.bankDetailsRequest();
+        requestJson = mapper.writeValueAsString(request);
+        storedJson = encryption.encrypt(request);
+        bankDetails = new BankDetails(UUID.randomUUID(), request, request.getServiceVersion());
+    }
+
+    @Benchmark
+    public String serialise() throws JsonProcessingException {
+        return mapper.writeValueAsString(request);
+    }
+
+    @Benchmark
+    public String hash() {
+        return DigestUtils.sha256Hex(requestJson);
+    }
+
+    @Benchmark
+    public String serialiseAndHash() throws JsonProcessingException {
+        return DigestUtils.sha256Hex(mapper.writeValueAsString(request));
+    }
+
+    @Benchmark
+    public String streamingHash() throws IOException {
+        return JsonDigest.sha256Hex(mapper, request);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return encryption.encrypt(request);
+    }
+
+    @Benchmark
+    public BankDetailsRequest decrypt() {
+        return encryption.decrypt(storedJson);
+    }
+
+    @Benchmark
+    public String createPath() throws IOException {
+        JsonDigest.sha256Hex(mapper, request);
+        return encryption.encrypt(request);
+    }
+
+    @Benchmark
+    public BankDetailsResponse buildResponse() {
+        return new BankDetailsResponse(bankDetails);
+    }
+}
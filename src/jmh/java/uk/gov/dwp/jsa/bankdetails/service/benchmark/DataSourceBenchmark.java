@@ -0,0 +1,154 @@
+package uk.gov.dwp.jsa.bankdetails.service.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.gov.dwp.jsa.bankdetails.service.Application;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.BankDetailsRequestJsonEncryption;
+import uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the hot database calls, the lookup by claim id and a batch of inserts, from as many threads as
+ * the connection pool in application.properties has connections. {@code defaults} leaves Hikari and PgJDBC on their defaults;
+ * {@code tuned} applies the datasource settings from application.properties. Runs against a scratch table in the
+ * PostgreSQL given by {@code BENCHMARK_JDBC_URL}, {@code BENCHMARK_JDBC_USERNAME} and
+ * {@code BENCHMARK_JDBC_PASSWORD}, which the forked benchmark JVMs inherit from the environment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(DataSourceBenchmark.THREADS)
+public class DataSourceBenchmark {
+
+    static final int THREADS = 32;
+    private static final int MINIMUM_IDLE = 8;
+    private static final String TABLE = "bank_details_benchmark";
+    private static final int ROWS = 10_000;
+    private static final int BATCH_SIZE = 50;
+    private static final String SELECT_BY_CLAIM_ID =
+            "select id, bank_details_json from " + TABLE + " where claim_id = ?";
+    private static final String INSERT =
+            "insert into " + TABLE + " (id, claim_id, bank_details_json) values (?, ?, cast(? as jsonb))";
+
+    @Param({"defaults", "tuned"})
+    private String settings;
+
+    private HikariDataSource dataSource;
+    private UUID[] claimIds;
+    private String storedJson;
+
+    @Setup
+    public void setUp() throws SQLException {
+        final HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(env("BENCHMARK_JDBC_URL", "jdbc:postgresql://localhost:5432/postgres"));
+        config.setUsername(env("BENCHMARK_JDBC_USERNAME", "postgres"));
+        config.setPassword(env("BENCHMARK_JDBC_PASSWORD", "postgres"));
+        if ("tuned".equals(settings)) {
+            config.setMaximumPoolSize(THREADS);
+            config.setMinimumIdle(MINIMUM_IDLE);
+            config.addDataSourceProperty("prepareThreshold", "1");
+            config.addDataSourceProperty("preparedStatementCacheQueries", "256");
+            config.addDataSourceProperty("preparedStatementCacheSizeMiB", "5");
+            config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        }
+        dataSource = new HikariDataSource(config);
+
+        storedJson = new BankDetailsRequestJsonEncryption(
+                BenchmarkFixtures.noLegacyValues(), new Application().objectMapper(),
+                BenchmarkFixtures.localDataKeyCache(), true, false, PipelineTimings.disabled())
+                .encrypt(BenchmarkFixtures.bankDetailsRequest());
+        claimIds = new UUID[ROWS];
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists " + TABLE);
+            statement.execute("create table " + TABLE + " (id uuid primary key, claim_id uuid not null unique, "
+                    + "bank_details_json jsonb not null)");
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                for (int i = 0; i < ROWS; i++) {
+                    claimIds[i] = UUID.randomUUID();
+                    addRow(insert, claimIds[i]);
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+            statement.execute("analyze " + TABLE);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists " + TABLE);
+        } finally {
+            dataSource.close();
+        }
+    }
+
+    @Benchmark
+    public String findByClaimId() throws SQLException {
+        final UUID claimId = claimIds[ThreadLocalRandom.current().nextInt(ROWS)];
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement(SELECT_BY_CLAIM_ID)) {
+            select.setObject(1, claimId);
+            try (ResultSet row = select.executeQuery()) {
+                return row.next() ? row.getString(2) : null;
+            }
+        }
+    }
+
+    /**
+     * A batch as the batch create endpoint sends it, rolled back so the table does not grow.
+     */
+    @Benchmark
+    public int[] batchInsert() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    addRow(insert, UUID.randomUUID());
+                }
+                return insert.executeBatch();
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    private static String env(final String name, final String defaultValue) {
+        final String value = System.getenv(name);
+        return value == null ? defaultValue : value;
+    }
+
+    private void addRow(final PreparedStatement insert, final UUID claimId) throws SQLException {
+        insert.setObject(1, UUID.randomUUID());
+        insert.setObject(2, claimId);
+        insert.setString(3, storedJson);
+        insert.addBatch();
+    }
+}
@@ -0,0 +1,70 @@
+package uk.gov.dwp.jsa.bankdetails.service.benchmark;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsResponse;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building, comparing and hashing a response with the hand-written field mapping, against the reflective
+ * copy and equality it replaced. Run with {@code -prof gc} to compare allocation per read as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private BankDetails bankDetails;
+    private BankDetailsResponse response;
+    private BankDetailsResponse otherResponse;
+
+    @Setup
+    public void setUp() {
+        final BankDetailsRequest request = BenchmarkFixtures.bankDetailsRequest();
+        bankDetails = new BankDetails(UUID.randomUUID(), request, request.getServiceVersion());
+        response = new BankDetailsResponse(bankDetails);
+        otherResponse = new BankDetailsResponse(bankDetails);
+    }
+
+    @Benchmark
+    public BankDetailsResponse buildResponse() {
+        return new BankDetailsResponse(bankDetails);
+    }
+
+    @Benchmark
+    public BankDetailsRequest buildResponseReflectively() {
+        final BankDetailsRequest copy = new BankDetailsRequest();
+        BeanUtils.copyProperties(bankDetails.getBankDetailsJson(), copy);
+        copy.setId(bankDetails.getId());
+        return copy;
+    }
+
+    @Benchmark
+    public boolean equalsAndHashCode() {
+        return response.equals(otherResponse) && response.hashCode() == otherResponse.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsAndHashCodeReflectively() {
+        return EqualsBuilder.reflectionEquals(response, otherResponse)
+                && HashCodeBuilder.reflectionHashCode(response) == HashCodeBuilder.reflectionHashCode(otherResponse);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * JMH benchmarks, built and run with the benchmark profile.
+ */
+package uk.gov.dwp.jsa.bankdetails.service.benchmark;
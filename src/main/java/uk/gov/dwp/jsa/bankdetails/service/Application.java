@@ -13,13 +13,17 @@ import uk.gov.dwp.health.crypto.CryptoConfig;
 import uk.gov.dwp.health.crypto.CryptoDataManager;
 import uk.gov.dwp.health.crypto.exception.CryptoException;
 import uk.gov.dwp.jsa.bankdetails.service.config.BankDetailsServiceObjectMapperProvider;
+import uk.gov.dwp.jsa.bankdetails.service.startup.LazyProxies;
+import uk.gov.dwp.jsa.bankdetails.service.startup.StartupTimeline;
 
 @SpringBootApplication(exclude = SecurityAutoConfiguration.class)
-@ComponentScan(value = "uk.gov.dwp.jsa")
+@ComponentScan(value = "${app.startup.scan-packages:uk.gov.dwp.jsa}")
 public class Application {
 
     public static void main(final String[] args) {
-        SpringApplication.run(Application.class, args);
+        final SpringApplication application = new SpringApplication(Application.class);
+        application.addListeners(new StartupTimeline());
+        application.run(args);
     }
 
     @Bean
@@ -34,11 +38,24 @@ public class Application {
         return new RestTemplate();
     }
 
+    /**
+     * The KMS crypto manager. With {@code app.startup.lazy-crypto} it is only built on first use, which
+     * {@link uk.gov.dwp.jsa.bankdetails.service.startup.CryptoWarmUp} brings forward to just before readiness.
+     */
     @Bean
     public CryptoDataManager cryptoDataManager(
             final @Value("${app.security.kms.datakey}") String datakey,
-            final @Value("${app.security.kms.overrideurl:}") String urlOverride
+            final @Value("${app.security.kms.overrideurl:}") String urlOverride,
+            final @Value("${app.startup.lazy-crypto:false}") boolean lazy
     ) throws CryptoException {
+        if (lazy) {
+            return LazyProxies.create(CryptoDataManager.class, () -> newCryptoDataManager(datakey, urlOverride));
+        }
+        return newCryptoDataManager(datakey, urlOverride);
+    }
+
+    private static CryptoDataManager newCryptoDataManager(final String datakey, final String urlOverride)
+            throws CryptoException {
         CryptoConfig config = new CryptoConfig(datakey);
         if (!StringUtils.isNullOrEmpty(urlOverride)) {
             config.setKmsEndpointOverride(urlOverride);
@@ -0,0 +1,82 @@
+package uk.gov.dwp.jsa.bankdetails.service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Logs a warning at startup for each connection pool larger than the number of threads that can hold a connection
+ * at once: the Tomcat workers, plus the async read pool when it is enabled. The extra connections are never used
+ * but still count against the database's connection limit. A smaller pool is the usual setting, since the
+ * database's limit is shared by every instance; requests beyond it wait up to the pool's connection timeout. Also
+ * warns when JDBC batching is on but the driver does not rewrite batched inserts.
+ */
+@Component
+public class DataSourceSettingsValidator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataSourceSettingsValidator.class);
+
+    static final String REWRITE_BATCHED_INSERTS = "reWriteBatchedInserts";
+
+    private final List<HikariDataSource> pools;
+    private final int workerThreads;
+    private final int jdbcBatchSize;
+
+    @Autowired
+    public DataSourceSettingsValidator(
+            final ObjectProvider<HikariDataSource> pools,
+            final @Value("${server.tomcat.threads.max:200}") int tomcatThreads,
+            final @Value("${app.async.enabled:false}") boolean asyncEnabled,
+            final @Value("${app.async.threads:32}") int asyncThreads,
+            final @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:1}") int jdbcBatchSize
+    ) {
+        this(pools.orderedStream().collect(Collectors.toList()),
+                tomcatThreads + (asyncEnabled ? asyncThreads : 0), jdbcBatchSize);
+    }
+
+    DataSourceSettingsValidator(final List<HikariDataSource> pools,
+                                final int workerThreads,
+                                final int jdbcBatchSize) {
+        this.pools = pools;
+        this.workerThreads = workerThreads;
+        this.jdbcBatchSize = jdbcBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void validate() {
+        check().forEach(LOGGER::warn);
+    }
+
+    /**
+     * @return a warning per inconsistent setting, empty when the settings fit together
+     */
+    List<String> check() {
+        final List<String> warnings = new ArrayList<>();
+        for (final HikariDataSource pool : pools) {
+            final int size = pool.getMaximumPoolSize();
+            if (size > workerThreads) {
+                warnings.add(String.format(
+                        "Pool %s allows %d connections but at most %d threads use one at once; "
+                                + "the other connections are never used",
+                        pool.getPoolName(), size, workerThreads));
+            }
+            if (jdbcBatchSize > 1
+                    && !ReadReplicaConfig.REPLICA_POOL.equals(pool.getPoolName())
+                    && !Boolean.parseBoolean(pool.getDataSourceProperties().getProperty(REWRITE_BATCHED_INSERTS))) {
+                warnings.add(String.format(
+                        "Pool %s does not set %s, so JDBC batches of %d inserts run as separate single-row inserts",
+                        pool.getPoolName(), REWRITE_BATCHED_INSERTS, jdbcBatchSize));
+            }
+        }
+        return warnings;
+    }
+}
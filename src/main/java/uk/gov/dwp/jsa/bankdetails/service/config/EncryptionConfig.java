@@ -0,0 +1,70 @@
+package uk.gov.dwp.jsa.bankdetails.service.config;
+
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.kms.AWSKMSClientBuilder;
+import com.amazonaws.util.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.DataKeyCache;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.DataKeyProvider;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.KmsDataKeyProvider;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.LocalDataKeyProvider;
+import uk.gov.dwp.jsa.bankdetails.service.startup.LazyProxies;
+
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Data key caching for field encryption. The cache is always created so that values written under a cached
+ * data key stay readable; {@code app.security.kms.datakey-cache.enabled} only decides whether new values are
+ * encrypted with one.
+ */
+@Configuration
+public class EncryptionConfig {
+
+    static final String LOCAL_PROVIDER = "local";
+
+    /**
+     * The data key provider. With {@code app.startup.lazy-crypto} the KMS client is only built on first use, like
+     * the crypto manager.
+     */
+    @Bean
+    public DataKeyProvider dataKeyProvider(
+            final @Value("${app.security.kms.datakey-cache.provider:kms}") String provider,
+            final @Value("${app.security.kms.datakey-cache.local-master-key:}") String localMasterKey,
+            final @Value("${app.security.kms.datakey}") String datakey,
+            final @Value("${app.security.kms.overrideurl:}") String urlOverride,
+            final @Value("${app.security.kms.region:eu-west-2}") String region,
+            final @Value("${app.startup.lazy-crypto:false}") boolean lazy
+    ) {
+        if (LOCAL_PROVIDER.equals(provider)) {
+            return new LocalDataKeyProvider(Base64.getDecoder().decode(localMasterKey));
+        }
+        if (lazy) {
+            return LazyProxies.create(DataKeyProvider.class, () -> newKmsDataKeyProvider(datakey, urlOverride, region));
+        }
+        return newKmsDataKeyProvider(datakey, urlOverride, region);
+    }
+
+    private static DataKeyProvider newKmsDataKeyProvider(final String datakey,
+                                                         final String urlOverride,
+                                                         final String region) {
+        final AWSKMSClientBuilder builder = AWSKMSClientBuilder.standard();
+        if (StringUtils.isNullOrEmpty(urlOverride)) {
+            builder.setRegion(region);
+        } else {
+            builder.setEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(urlOverride, region));
+        }
+        return new KmsDataKeyProvider(builder.build(), datakey);
+    }
+
+    @Bean
+    public DataKeyCache dataKeyCache(
+            final DataKeyProvider dataKeyProvider,
+            final @Value("${app.security.kms.datakey-cache.max-age:PT5M}") Duration maxAge,
+            final @Value("${app.security.kms.datakey-cache.max-uses:10000}") long maxUses
+    ) {
+        return new DataKeyCache(dataKeyProvider, maxAge, maxUses);
+    }
+}
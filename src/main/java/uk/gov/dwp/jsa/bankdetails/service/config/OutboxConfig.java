@@ -0,0 +1,51 @@
+package uk.gov.dwp.jsa.bankdetails.service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionOperations;
+import uk.gov.dwp.jsa.bankdetails.service.outbox.BankDetailsEventSink;
+import uk.gov.dwp.jsa.bankdetails.service.outbox.FileEventSink;
+import uk.gov.dwp.jsa.bankdetails.service.outbox.LoggingEventSink;
+import uk.gov.dwp.jsa.bankdetails.service.outbox.OutboxRelay;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsOutboxRepository;
+
+import java.nio.file.Paths;
+
+/**
+ * The outbox relay and its sink, enabled with {@code app.outbox.enabled}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.outbox.enabled", havingValue = "true")
+public class OutboxConfig {
+
+    static final String FILE_SINK = "file";
+
+    @Bean
+    public BankDetailsEventSink bankDetailsEventSink(
+            final ObjectMapper mapper,
+            final @Value("${app.outbox.sink:log}") String sink,
+            final @Value("${app.outbox.file:bank-details-events.ndjson}") String file
+    ) {
+        if (FILE_SINK.equals(sink)) {
+            return new FileEventSink(Paths.get(file), mapper);
+        }
+        return new LoggingEventSink(mapper);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(
+            final BankDetailsOutboxRepository repository,
+            final BankDetailsEventSink sink,
+            final TransactionOperations transactionOperations,
+            final @Value("${app.outbox.relay.batch-size:500}") int batchSize,
+            final MeterRegistry meterRegistry
+    ) {
+        return new OutboxRelay(repository, sink, transactionOperations, batchSize, meterRegistry);
+    }
+}
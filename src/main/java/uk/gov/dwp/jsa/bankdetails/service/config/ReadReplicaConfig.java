@@ -0,0 +1,67 @@
+package uk.gov.dwp.jsa.bankdetails.service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import uk.gov.dwp.jsa.bankdetails.service.datasource.ReadReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * A replica pool for the reads {@link uk.gov.dwp.jsa.bankdetails.service.datasource.ReadRouting} allows, enabled
+ * with {@code app.datasource.replica.enabled}. The primary pool is still configured through
+ * {@code spring.datasource.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    static final String PRIMARY_POOL = "primary";
+    static final String REPLICA_POOL = "replica";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        final HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(PRIMARY_POOL);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            final DataSourceProperties properties,
+            final @Value("${app.datasource.replica.url}") String url,
+            final @Value("${app.datasource.replica.username:${spring.datasource.username}}") String username,
+            final @Value("${app.datasource.replica.password:${spring.datasource.password}}") String password
+    ) {
+        final HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName(REPLICA_POOL);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(final @Qualifier("primaryDataSource") DataSource primary,
+                                 final @Qualifier("replicaDataSource") DataSource replica) {
+        final ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, replica);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,47 @@
+package uk.gov.dwp.jsa.bankdetails.service.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.dwp.jsa.adaptors.http.api.ApiResponse;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsChangePage;
+import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsChangeFeedService;
+import uk.gov.dwp.jsa.bankdetails.service.services.ResponseBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.URI;
+
+import static uk.gov.dwp.jsa.bankdetails.service.config.WithVersionUriComponentsBuilder.VERSION_SPEL;
+
+@RestController
+@RequestMapping("/nsjsa/" + VERSION_SPEL)
+public class BankDetailsChangeFeedController {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BankDetailsChangeFeedController.class);
+
+    private final BankDetailsChangeFeedService changeFeedService;
+
+    @Autowired
+    public BankDetailsChangeFeedController(final BankDetailsChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @BulkReader
+    @GetMapping("/bank-details/changes")
+    public ResponseEntity<ApiResponse<BankDetailsChangePage>> getChanges(
+            @RequestParam(value = "cursor", required = false) final String cursor,
+            @RequestParam(value = "limit", defaultValue = "500") final int limit,
+            final HttpServletRequest request
+    ) {
+        LOGGER.debug("Getting up to {} bank details changes after cursor: {}", limit, cursor);
+        return new ResponseBuilder<BankDetailsChangePage>()
+                .withStatus(HttpStatus.OK)
+                .withSuccessData(URI.create(request.getRequestURI()), changeFeedService.getChanges(cursor, limit))
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package uk.gov.dwp.jsa.bankdetails.service.controllers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -13,20 +14,40 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import uk.gov.dwp.jsa.adaptors.http.api.ApiResponse;
 import uk.gov.dwp.jsa.bankdetails.service.config.WithVersionUriComponentsBuilder;
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsPreconditionFailedException;
+import uk.gov.dwp.jsa.bankdetails.service.execution.BlockingCallExecutor;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsBatchRequest;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsBatchResult;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsLookupRequest;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsLookupResult;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsMetadataResponse;
 import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
 import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsResponse;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsMetadata;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsTag;
+import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsCreateResult;
 import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsService;
+import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsUpdateResult;
 import uk.gov.dwp.jsa.bankdetails.service.services.ResponseBuilder;
+import uk.gov.dwp.jsa.bankdetails.service.services.TaggedBankDetails;
 import uk.gov.dwp.jsa.security.roles.AnyRole;
 import uk.gov.dwp.jsa.security.roles.WC;
 
 import javax.servlet.http.HttpServletRequest;
 import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder.fromController;
 import static uk.gov.dwp.jsa.bankdetails.service.config.WithVersionUriComponentsBuilder.VERSION_SPEL;
@@ -35,54 +56,137 @@ import static uk.gov.dwp.jsa.bankdetails.service.config.WithVersionUriComponents
 @RequestMapping("/nsjsa/" + VERSION_SPEL)
 public class BankDetailsController {
     private static final Logger LOGGER = LoggerFactory.getLogger(BankDetailsController.class);
+    public static final String MODIFIED_HEADER = "Bank-Details-Modified";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    /**
+     * Comma-separated bank details fields to return; only those are decrypted.
+     */
+    public static final String FIELDS_PARAM = "fields";
 
     private final BankDetailsService bankDetailsService;
     private final WithVersionUriComponentsBuilder uriBuilder;
+    private final BlockingCallExecutor blockingCalls;
 
     @Autowired
     public BankDetailsController(
             final BankDetailsService bankDetailsService,
-            final WithVersionUriComponentsBuilder pUriBuilder
+            final WithVersionUriComponentsBuilder pUriBuilder,
+            final BlockingCallExecutor pBlockingCalls
     ) {
         this.bankDetailsService = bankDetailsService;
         this.uriBuilder = pUriBuilder;
+        this.blockingCalls = pBlockingCalls;
     }
 
     @AnyRole
     @GetMapping("/bank-details/{id}")
-    public ResponseEntity<ApiResponse<BankDetailsResponse>> getBankDetailsById(
+    public CompletableFuture<ResponseEntity<ApiResponse<BankDetailsResponse>>> getBankDetailsById(
             @PathVariable final UUID id,
+            @RequestParam(value = FIELDS_PARAM, required = false) final Set<String> fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
             final HttpServletRequest request
     ) {
         LOGGER.debug("Getting bank details for id: {}", id);
-        return buildSuccessfulResponse(
-                request.getRequestURI(),
-                bankDetailsService.getBankDetailsById(id),
-                HttpStatus.OK
-        );
+        final String path = request.getRequestURI();
+        return blockingCalls.supply(() -> buildConditionalResponse(
+                path,
+                ifNoneMatch,
+                fields,
+                () -> bankDetailsService.getTagById(id),
+                () -> fields == null
+                        ? bankDetailsService.getBankDetailsById(id)
+                        : bankDetailsService.getBankDetailsById(id, fields)
+        ));
     }
 
     @AnyRole
     @GetMapping("/claim/{claimId}/bank-details")
-    public ResponseEntity<ApiResponse<BankDetailsResponse>> getBankDetailsByClaimId(
+    public CompletableFuture<ResponseEntity<ApiResponse<BankDetailsResponse>>> getBankDetailsByClaimId(
             @PathVariable final UUID claimId,
+            @RequestParam(value = FIELDS_PARAM, required = false) final Set<String> fields,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
             final HttpServletRequest request
     ) {
         LOGGER.debug("Getting bank details for claimId: {}", claimId);
-        return buildSuccessfulResponse(
-                request.getRequestURI(),
-                bankDetailsService.getBankDetailsByClaimId(claimId),
+        final String path = request.getRequestURI();
+        return blockingCalls.supply(() -> buildConditionalResponse(
+                path,
+                ifNoneMatch,
+                fields,
+                () -> bankDetailsService.getTagByClaimId(claimId),
+                () -> fields == null
+                        ? bankDetailsService.getBankDetailsByClaimId(claimId)
+                        : bankDetailsService.getBankDetailsByClaimId(claimId, fields)
+        ));
+    }
+
+    /**
+     * Whether the claim has bank details, answered from the stored hash and version alone.
+     */
+    @AnyRole
+    @RequestMapping(value = "/claim/{claimId}/bank-details", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> headBankDetailsByClaimId(
+            @PathVariable final UUID claimId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch
+    ) {
+        LOGGER.debug("Checking bank details exist for claimId: {}", claimId);
+        final String entityTag = EntityTags.fromTag(bankDetailsService.getTagByClaimId(claimId));
+        if (entityTag == null) {
+            return ResponseEntity.ok().build();
+        }
+        final HttpStatus status = EntityTags.matches(ifNoneMatch, entityTag) ? HttpStatus.NOT_MODIFIED : HttpStatus.OK;
+        return ResponseEntity.status(status).eTag(entityTag).build();
+    }
+
+    @AnyRole
+    @GetMapping("/claim/{claimId}/bank-details/metadata")
+    public ResponseEntity<ApiResponse<BankDetailsMetadataResponse>> getBankDetailsMetadataByClaimId(
+            @PathVariable final UUID claimId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            final HttpServletRequest request
+    ) {
+        LOGGER.debug("Getting bank details metadata for claimId: {}", claimId);
+        final BankDetailsMetadata metadata = bankDetailsService.getMetadataByClaimId(claimId);
+        final String entityTag = EntityTags.fromTag(metadata);
+        if (EntityTags.matches(ifNoneMatch, entityTag)) {
+            return notModified(entityTag);
+        }
+        return buildTaggedResponse(request.getRequestURI(), entityTag, new BankDetailsMetadataResponse(metadata));
+    }
+
+    @BulkReader
+    @PostMapping("/bank-details/lookup")
+    public CompletableFuture<ResponseEntity<ApiResponse<Map<UUID, BankDetailsLookupResult>>>>
+    lookupBankDetailsByClaimIds(
+            @RequestBody @Validated final BankDetailsLookupRequest lookupRequest,
+            final HttpServletRequest request
+    ) {
+        LOGGER.debug("Looking up bank details for {} claimIds", lookupRequest.getClaimIds().size());
+        final String path = request.getRequestURI();
+        return blockingCalls.supply(() -> buildSuccessfulResponse(
+                path,
+                bankDetailsService.getBankDetailsByClaimIds(lookupRequest.getClaimIds()),
                 HttpStatus.OK
-        );
+        ));
     }
 
     @PreAuthorize("!hasAnyAuthority('SCA')")
     @PostMapping("/claim/{claimId}/bank-details")
     public ResponseEntity<ApiResponse<UUID>> createBankDetails(
             @PathVariable("claimId") final UUID claimId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) final String idempotencyKey,
             @RequestBody @Validated final BankDetailsRequest bankDetailsRequest
     ) {
         LOGGER.debug("Creating bank details for claimId: {}", claimId);
+        if (idempotencyKey != null) {
+            final BankDetailsCreateResult result = bankDetailsService.saveIfAbsent(claimId, idempotencyKey,
+                    bankDetailsRequest);
+            return buildSuccessfulResponse(
+                    buildResourceUriFor(result.getId()).toString(),
+                    result.getId(),
+                    result.isCreated() ? HttpStatus.CREATED : HttpStatus.OK
+            );
+        }
         final UUID savedBankDetailsId = bankDetailsService.save(claimId, bankDetailsRequest);
         return buildSuccessfulResponse(
                 buildResourceUriFor(savedBankDetailsId).toString(),
@@ -91,19 +195,39 @@ public class BankDetailsController {
         );
     }
 
+    @PreAuthorize("!hasAnyAuthority('SCA')")
+    @PostMapping("/bank-details/batch")
+    public ResponseEntity<ApiResponse<List<BankDetailsBatchResult>>> createBankDetailsBatch(
+            @RequestBody @Validated final BankDetailsBatchRequest batchRequest,
+            final HttpServletRequest request
+    ) {
+        LOGGER.debug("Creating bank details for a batch of {} claims", batchRequest.getItems().size());
+        return buildSuccessfulResponse(
+                request.getRequestURI(),
+                bankDetailsService.saveAll(batchRequest.getItems()),
+                HttpStatus.OK
+        );
+    }
+
     @PreAuthorize("hasAnyAuthority('CCM', 'CCA', 'WC')")
     @PatchMapping("/bank-details/{id}")
     public ResponseEntity<ApiResponse<UUID>> updateBankDetails(
             @PathVariable("id") final UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch,
             @RequestBody @Validated final BankDetailsRequest bankDetailsRequest
     ) {
         LOGGER.debug("Updating bank details for id: {}", id);
-        final UUID savedBankDetailsId = bankDetailsService.update(id, bankDetailsRequest);
-        return buildSuccessfulResponse(
-                buildResourceUriFor(savedBankDetailsId).toString(),
-                savedBankDetailsId,
-                HttpStatus.OK
-        );
+        final BankDetailsUpdateResult result = bankDetailsService.update(
+                id, bankDetailsRequest, expectedVersionFor(ifMatch));
+        final ResponseBuilder<UUID> responseBuilder = new ResponseBuilder<UUID>()
+                .withStatus(HttpStatus.OK)
+                .withHeader(MODIFIED_HEADER, String.valueOf(result.isModified()))
+                .withSuccessData(buildResourceUriFor(result.getId()), result.getId());
+        final String entityTag = EntityTags.fromTag(result);
+        if (entityTag != null) {
+            responseBuilder.withHeader(HttpHeaders.ETAG, entityTag);
+        }
+        return responseBuilder.build();
     }
 
     @WC
@@ -111,7 +235,6 @@ public class BankDetailsController {
     public ResponseEntity deleteBankDetails(@PathVariable final UUID id,
                                             final HttpServletRequest request) {
         LOGGER.debug("Deleting bank details for id: {}", id);
-        bankDetailsService.getBankDetailsById(id);
         bankDetailsService.delete(id);
         return buildSuccessfulResponse(
                 request.getRequestURI(),
@@ -120,6 +243,61 @@ public class BankDetailsController {
         );
     }
 
+    /**
+     * A missing or wildcard If-Match updates unconditionally; any other value must be an entity tag issued by this
+     * service, so that an unreadable precondition is never mistaken for no precondition at all.
+     */
+    private Long expectedVersionFor(final String ifMatch) {
+        if (ifMatch == null || EntityTags.ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        final Long version = EntityTags.versionOf(ifMatch);
+        if (version == null) {
+            throw new BankDetailsPreconditionFailedException();
+        }
+        return version;
+    }
+
+    /**
+     * Answers 304 when the client already holds the current representation, so the bank details are only loaded
+     * and decrypted when they have changed. The current tag is only read when the client sends If-None-Match; the
+     * entity tag of a 200 is built from the same row as the body, which may come from the cache or a replica.
+     */
+    private ResponseEntity<ApiResponse<BankDetailsResponse>> buildConditionalResponse(
+            final String path,
+            final String ifNoneMatch,
+            final Set<String> fields,
+            final Supplier<BankDetailsTag> currentTag,
+            final Supplier<TaggedBankDetails> bankDetails
+    ) {
+        if (ifNoneMatch != null) {
+            final String currentEntityTag = EntityTags.fromTag(currentTag.get(), fields);
+            if (EntityTags.matches(ifNoneMatch, currentEntityTag)) {
+                return notModified(currentEntityTag);
+            }
+        }
+        final TaggedBankDetails tagged = bankDetails.get();
+        return buildTaggedResponse(path, EntityTags.fromTag(tagged, fields), tagged.getBankDetails());
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> notModified(final String entityTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag).build();
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> buildTaggedResponse(
+            final String path,
+            final String entityTag,
+            final T objectToReturn
+    ) {
+        final ResponseBuilder<T> responseBuilder = new ResponseBuilder<T>()
+                .withStatus(HttpStatus.OK)
+                .withSuccessData(URI.create(path), objectToReturn);
+        if (entityTag != null) {
+            responseBuilder.withHeader(HttpHeaders.ETAG, entityTag);
+        }
+        return responseBuilder.build();
+    }
+
     private <T> ResponseEntity<ApiResponse<T>> buildSuccessfulResponse(
             final String path,
             final T objectToReturn,
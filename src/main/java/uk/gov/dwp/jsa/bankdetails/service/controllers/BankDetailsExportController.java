@@ -0,0 +1,85 @@
+package uk.gov.dwp.jsa.bankdetails.service.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsExportService;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Callable;
+
+import static uk.gov.dwp.jsa.bankdetails.service.config.WithVersionUriComponentsBuilder.VERSION_SPEL;
+
+/**
+ * Bulk export of bank details for reconciliation, streamed as newline-delimited JSON. An export can take far longer
+ * than any other request, so its async timeout is raised to {@code app.export.timeout} for that request alone.
+ */
+@RestController
+@RequestMapping("/nsjsa/" + VERSION_SPEL)
+public class BankDetailsExportController {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BankDetailsExportController.class);
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final BankDetailsExportService exportService;
+    private final Duration timeout;
+
+    @Autowired
+    public BankDetailsExportController(final BankDetailsExportService exportService,
+                                       final @Value("${app.export.timeout:PT30M}") Duration timeout) {
+        this.exportService = exportService;
+        this.timeout = timeout;
+    }
+
+    @BulkReader
+    @GetMapping(value = "/bank-details/export", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBankDetails(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime to,
+            @RequestParam(value = "by", defaultValue = "UPDATED") final BankDetailsExportService.Timestamp by,
+            final HttpServletRequest request
+    ) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        LOGGER.debug("Exporting bank details {} in [{}, {})", by, from, to);
+        final StreamingResponseBody body = out -> exportService.export(by, from, to, out);
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(TimeoutInterceptor.class,
+                new TimeoutInterceptor(timeout));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
+    }
+
+    /**
+     * Sets the timeout of the async request that streams the body, just before it starts.
+     */
+    static final class TimeoutInterceptor implements CallableProcessingInterceptor {
+        private final Duration timeout;
+
+        TimeoutInterceptor(final Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        @Override
+        public <T> void beforeConcurrentHandling(final NativeWebRequest request, final Callable<T> task) {
+            if (request instanceof AsyncWebRequest) {
+                ((AsyncWebRequest) request).setTimeout(timeout.toMillis());
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package uk.gov.dwp.jsa.bankdetails.service.controllers;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restricts an endpoint that returns the bank details of many claims at once to callers holding the
+ * {@value #AUTHORITY} authority. None of the staff roles that may read a single claim's bank details has it.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@PreAuthorize("hasAuthority('" + BulkReader.AUTHORITY + "')")
+public @interface BulkReader {
+
+    String AUTHORITY = "BANK_DETAILS_BULK_READ";
+}
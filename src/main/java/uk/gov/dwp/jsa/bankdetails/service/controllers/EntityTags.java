@@ -0,0 +1,93 @@
+package uk.gov.dwp.jsa.bankdetails.service.controllers;
+
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsTag;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Builds and matches the entity tags that the bank details endpoints derive from the stored hash and version.
+ */
+final class EntityTags {
+
+    static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+    private static final String QUOTE = "\"";
+    private static final char VERSION_SEPARATOR = '-';
+    private static final String FIELD_SEPARATOR = ".";
+
+    private EntityTags() {
+    }
+
+    /**
+     * @param tag the stored hash and version of the bank details
+     * @return the quoted entity tag, or {@code null} when neither a hash nor a version is stored
+     */
+    static String fromTag(final BankDetailsTag tag) {
+        if (tag == null || (tag.getHash() == null && tag.getVersion() == null)) {
+            return null;
+        }
+        final String hash = tag.getHash() == null ? "" : tag.getHash();
+        final long version = tag.getVersion() == null ? 0L : tag.getVersion();
+        return QUOTE + hash + VERSION_SEPARATOR + version + QUOTE;
+    }
+
+    /**
+     * The entity tag of a selection of fields, which differs from the tag of the whole bank details and of every
+     * other selection so that a client never holds one representation under the tag of another.
+     *
+     * @param tag    the stored hash and version of the bank details
+     * @param fields the selected fields, or {@code null} for the whole bank details
+     * @return the quoted entity tag, or {@code null} when neither a hash nor a version is stored
+     */
+    static String fromTag(final BankDetailsTag tag, final Set<String> fields) {
+        final String entityTag = fromTag(tag);
+        if (entityTag == null || fields == null) {
+            return entityTag;
+        }
+        final int versionAt = entityTag.lastIndexOf(VERSION_SEPARATOR);
+        return entityTag.substring(0, versionAt) + FIELD_SEPARATOR
+                + String.join(FIELD_SEPARATOR, new TreeSet<>(fields)) + entityTag.substring(versionAt);
+    }
+
+    /**
+     * Reads the version a client expects from an If-Match header holding a single entity tag.
+     *
+     * @param ifMatch the value of the If-Match header, not {@code null} and not {@code *}
+     * @return the version carried by the entity tag, or {@code null} when the header is not a tag this service issued
+     */
+    static Long versionOf(final String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.startsWith(WEAK_PREFIX)) {
+            tag = tag.substring(WEAK_PREFIX.length());
+        }
+        if (tag.length() < 2 || !tag.startsWith(QUOTE) || !tag.endsWith(QUOTE)) {
+            return null;
+        }
+        final String value = tag.substring(1, tag.length() - 1);
+        try {
+            return Long.valueOf(value.substring(value.lastIndexOf(VERSION_SEPARATOR) + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param ifNoneMatch the value of an If-None-Match or If-Match header, may be {@code null}
+     * @param entityTag   the current entity tag, may be {@code null}
+     * @return whether the header lists the current entity tag
+     */
+    static boolean matches(final String ifNoneMatch, final String entityTag) {
+        if (ifNoneMatch == null || entityTag == null) {
+            return false;
+        }
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String tag = candidate.trim();
+            if (ANY.equals(tag)
+                    || entityTag.equals(tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package uk.gov.dwp.jsa.bankdetails.service.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Decides which reads may be served by the read replica. Only reads run through {@link #fromReplica} are routed
+ * there, and not while their caller is inside the read-your-writes window: once a caller has written, their reads
+ * stay on the primary until the window has passed, so they never see a replica that has not caught up with their
+ * own write. Callers are identified by the authenticated principal. Does nothing unless
+ * {@code app.datasource.replica.enabled} is set.
+ */
+@Component
+public class ReadRouting {
+
+    private static final int MAXIMUM_WRITERS = 10_000;
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWriters;
+
+    @Autowired
+    public ReadRouting(final @Value("${app.datasource.replica.enabled:false}") boolean enabled,
+                       final @Value("${app.datasource.replica.read-your-writes-window:PT5S}") Duration window) {
+        this(enabled, window, Ticker.systemTicker());
+    }
+
+    ReadRouting(final boolean enabled, final Duration window, final Ticker ticker) {
+        this.enabled = enabled;
+        this.recentWriters = enabled && !window.isZero()
+                ? Caffeine.newBuilder().maximumSize(MAXIMUM_WRITERS).expireAfterWrite(window).ticker(ticker).build()
+                : null;
+    }
+
+    /**
+     * @return routing that keeps every read on the primary
+     */
+    public static ReadRouting disabled() {
+        return new ReadRouting(false, Duration.ZERO, Ticker.systemTicker());
+    }
+
+    /**
+     * Runs a read that may be served by the replica.
+     *
+     * @param read the read
+     * @param <T>  the result type
+     * @return the result of the read
+     */
+    public <T> T fromReplica(final Supplier<T> read) {
+        if (!enabled || isRecentWriter()) {
+            return read.get();
+        }
+        final Boolean outer = REPLICA_ALLOWED.get();
+        REPLICA_ALLOWED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (outer == null) {
+                REPLICA_ALLOWED.remove();
+            } else {
+                REPLICA_ALLOWED.set(outer);
+            }
+        }
+    }
+
+    /**
+     * Starts, or restarts, the read-your-writes window for the current caller.
+     */
+    public void recordWrite() {
+        final String caller = currentCaller();
+        if (recentWriters != null && caller != null) {
+            recentWriters.put(caller, Boolean.TRUE);
+        }
+    }
+
+    boolean isRecentWriter() {
+        final String caller = currentCaller();
+        return recentWriters != null && caller != null && recentWriters.getIfPresent(caller) != null;
+    }
+
+    static boolean isReplicaAllowed() {
+        return Boolean.TRUE.equals(REPLICA_ALLOWED.get());
+    }
+
+    private static String currentCaller() {
+        final Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
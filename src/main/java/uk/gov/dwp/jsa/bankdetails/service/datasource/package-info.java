@@ -0,0 +1,4 @@
+/**
+ * Routing of read-only transactions to a read replica.
+ */
+package uk.gov.dwp.jsa.bankdetails.service.datasource;
@@ -0,0 +1,119 @@
+package uk.gov.dwp.jsa.bankdetails.service.encryption;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Decrypts the payloads of many rows at once. Each call to the encryption strategy waits on the crypto provider,
+ * so with {@code app.security.encryption.parallel.enabled} the rows are decrypted concurrently on a pool of
+ * {@code app.security.encryption.parallel.threads} and a batch takes about as long as its slowest rows rather
+ * than the sum of them. The pool's queue is bounded; once it is full the calling thread decrypts the row itself,
+ * which holds back further submissions until the pool catches up. The calling thread also decrypts the rows the
+ * pool no longer takes once it has shut down, so a batch read during shutdown still completes.
+ * <p>
+ * Disabled by default, in which case rows are decrypted one after the other on the calling thread.
+ */
+@Component
+public class BankDetailsBatchDecryption {
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private final BankDetailsRequestJsonEncryption encryption;
+    private final ThreadPoolExecutor pool;
+
+    @Autowired
+    public BankDetailsBatchDecryption(
+            final BankDetailsRequestJsonEncryption encryption,
+            final @Value("${app.security.encryption.parallel.enabled:false}") boolean enabled,
+            final @Value("${app.security.encryption.parallel.threads:8}") int threads,
+            final @Value("${app.security.encryption.parallel.queue-capacity:500}") int queueCapacity
+    ) {
+        this(encryption, enabled ? newPool(threads, queueCapacity) : null);
+    }
+
+    BankDetailsBatchDecryption(final BankDetailsRequestJsonEncryption encryption, final ThreadPoolExecutor pool) {
+        this.encryption = encryption;
+        this.pool = pool;
+    }
+
+    /**
+     * @param encryption the encryption to decrypt each payload with
+     * @return a decryption that decrypts the rows one after the other on the calling thread
+     */
+    public static BankDetailsBatchDecryption sequential(final BankDetailsRequestJsonEncryption encryption) {
+        return new BankDetailsBatchDecryption(encryption, null);
+    }
+
+    /**
+     * @param payloads the stored, encrypted payloads
+     * @return the decrypted bank details, in the order of {@code payloads}
+     */
+    public List<BankDetailsRequest> decryptAll(final List<String> payloads) {
+        if (pool == null || payloads.size() < 2) {
+            final List<BankDetailsRequest> decrypted = new ArrayList<>(payloads.size());
+            payloads.forEach(payload -> decrypted.add(encryption.decrypt(payload)));
+            return decrypted;
+        }
+        final List<CompletableFuture<BankDetailsRequest>> decrypting = payloads.stream()
+                .map(this::submit)
+                .collect(Collectors.toList());
+        try {
+            return decrypting.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } catch (CompletionException e) {
+            decrypting.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private CompletableFuture<BankDetailsRequest> submit(final String payload) {
+        try {
+            return CompletableFuture.supplyAsync(() -> encryption.decrypt(payload), pool);
+        } catch (RejectedExecutionException e) {
+            final CompletableFuture<BankDetailsRequest> decrypted = new CompletableFuture<>();
+            try {
+                decrypted.complete(encryption.decrypt(payload));
+            } catch (RuntimeException failure) {
+                decrypted.completeExceptionally(failure);
+            }
+            return decrypted;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private static ThreadPoolExecutor newPool(final int threads, final int queueCapacity) {
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads,
+                threads,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("bank-details-decrypt-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
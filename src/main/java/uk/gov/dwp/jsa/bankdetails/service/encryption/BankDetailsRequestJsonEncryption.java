@@ -1,22 +1,114 @@
 package uk.gov.dwp.jsa.bankdetails.service.encryption;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings;
 import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
 import uk.gov.dwp.jsa.security.encryption.BaseJsonEncryption;
 import uk.gov.dwp.jsa.security.encryption.EncryptionStrategy;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
+/**
+ * Encryption of the secured fields of a {@link BankDetailsRequest}.
+ * <p>
+ * By default each secured field is encrypted on its own. In single-envelope mode the secured fields are
+ * packed into one sub-document that is encrypted with a single call and stored in {@value #ENVELOPE_FIELD},
+ * next to a {@value #FORMAT_FIELD} marker. Rows are read according to the format they were written in, so
+ * switching modes does not require re-encrypting existing rows.
+ */
 @Component
 public class BankDetailsRequestJsonEncryption extends BaseJsonEncryption<BankDetailsRequest> {
 
+    static final String ENVELOPE_FIELD = "securedFields";
+    static final String FORMAT_FIELD = "securedFormat";
+    static final int ENVELOPE_FORMAT = 2;
+
     private static final List<String> LIST_OF_SECURED_FIELDS =
             Arrays.asList("/claimantId", "/accountHolder", "/sortCode", "/accountNumber", "/reference");
 
-    public BankDetailsRequestJsonEncryption(final EncryptionStrategy pStrategy, final ObjectMapper pMapper) {
-        super(pStrategy, pMapper);
+    private static final Set<String> SECURED_FIELD_NAMES = LIST_OF_SECURED_FIELDS.stream()
+            .map(path -> path.substring(1))
+            .collect(Collectors.collectingAndThen(Collectors.toSet(), Collections::unmodifiableSet));
+
+    private final EncryptionStrategy strategy;
+    private final EncryptionStrategy fieldStrategy;
+    private final ObjectMapper mapper;
+    private final boolean singleEnvelope;
+    private final PipelineTimings timings;
+
+    public BankDetailsRequestJsonEncryption(
+            final EncryptionStrategy pStrategy,
+            final ObjectMapper pMapper,
+            final ObjectProvider<DataKeyCache> pDataKeyCache,
+            final @Value("${app.security.kms.datakey-cache.enabled:false}") boolean pDataKeyEncryption,
+            final @Value("${app.security.encryption.single-envelope:false}") boolean pSingleEnvelope,
+            final PipelineTimings pTimings
+    ) {
+        this(withDataKeyCache(pStrategy, pDataKeyCache.getIfAvailable(), pDataKeyEncryption), pMapper,
+                pSingleEnvelope, pTimings);
+    }
+
+    private BankDetailsRequestJsonEncryption(final EncryptionStrategy pStrategy,
+                                             final ObjectMapper pMapper,
+                                             final boolean pSingleEnvelope,
+                                             final PipelineTimings pTimings) {
+        this(timed(pStrategy, pTimings, PipelineTimings.FIELD), timed(pStrategy, pTimings, PipelineTimings.ENVELOPE),
+                pMapper, pSingleEnvelope, pTimings);
+    }
+
+    private BankDetailsRequestJsonEncryption(final EncryptionStrategy pFieldStrategy,
+                                             final EncryptionStrategy pEnvelopeStrategy,
+                                             final ObjectMapper pMapper,
+                                             final boolean pSingleEnvelope,
+                                             final PipelineTimings pTimings) {
+        super(pFieldStrategy, pMapper);
+        this.fieldStrategy = pFieldStrategy;
+        this.strategy = pEnvelopeStrategy;
+        this.mapper = pMapper;
+        this.singleEnvelope = pSingleEnvelope;
+        this.timings = pTimings;
+    }
+
+    /**
+     * Times each call to the strategy, one per secured field or one per envelope.
+     */
+    private static EncryptionStrategy timed(final EncryptionStrategy strategy,
+                                            final PipelineTimings timings,
+                                            final String stage) {
+        return new EncryptionStrategy() {
+            @Override
+            public String encrypt(final String value) {
+                return timings.time(PipelineTimings.ENCRYPT, stage, () -> strategy.encrypt(value));
+            }
+
+            @Override
+            public String decrypt(final String value) {
+                return timings.time(PipelineTimings.DECRYPT, stage, () -> strategy.decrypt(value));
+            }
+        };
+    }
+
+    /**
+     * Decrypts values written under a cached data key whether or not new values are encrypted with one.
+     */
+    private static EncryptionStrategy withDataKeyCache(final EncryptionStrategy strategy,
+                                                       final DataKeyCache dataKeyCache,
+                                                       final boolean encryptWithDataKeys) {
+        if (dataKeyCache == null) {
+            return strategy;
+        }
+        return new DataKeyCachingEncryptionStrategy(strategy, dataKeyCache, encryptWithDataKeys);
     }
 
     @Override
@@ -28,4 +120,89 @@ public class BankDetailsRequestJsonEncryption extends BaseJsonEncryption<BankDet
     public List<String> getFieldsPathToSecure() {
         return LIST_OF_SECURED_FIELDS;
     }
+
+    @Override
+    public String encrypt(final BankDetailsRequest value) {
+        return timings.time(PipelineTimings.ENCRYPT, PipelineTimings.DOCUMENT, () -> encryptDocument(value));
+    }
+
+    private String encryptDocument(final BankDetailsRequest value) {
+        if (!singleEnvelope || value == null) {
+            return super.encrypt(value);
+        }
+        final ObjectNode document = mapper.valueToTree(value);
+        final ObjectNode securedFields = mapper.createObjectNode();
+        for (final String path : LIST_OF_SECURED_FIELDS) {
+            final JsonNode field = document.remove(path.substring(1));
+            if (field != null && !field.isNull()) {
+                securedFields.set(path.substring(1), field);
+            }
+        }
+        document.put(ENVELOPE_FIELD, strategy.encrypt(securedFields.toString()));
+        document.put(FORMAT_FIELD, ENVELOPE_FORMAT);
+        return document.toString();
+    }
+
+    @Override
+    public BankDetailsRequest decrypt(final String value) {
+        return timings.time(PipelineTimings.DECRYPT, PipelineTimings.DOCUMENT, () -> decryptDocument(value));
+    }
+
+    private BankDetailsRequest decryptDocument(final String value) {
+        final JsonNode document = readTree(value);
+        if (document == null || !isEnvelope(document)) {
+            return super.decrypt(value);
+        }
+        try {
+            final ObjectNode fields = (ObjectNode) document;
+            final String securedFields = strategy.decrypt(fields.remove(ENVELOPE_FIELD).asText());
+            fields.remove(FORMAT_FIELD);
+            fields.setAll((ObjectNode) mapper.readTree(securedFields));
+            return mapper.treeToValue(fields, BankDetailsRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read secured bank details fields", e);
+        }
+    }
+
+    /**
+     * @param document a stored payload
+     * @return whether its secured fields are packed in one envelope, rather than encrypted each on its own
+     * @throws IllegalStateException if it has an envelope in a format this version cannot read
+     */
+    static boolean isEnvelope(final JsonNode document) {
+        if (!document.has(ENVELOPE_FIELD)) {
+            return false;
+        }
+        final JsonNode format = document.get(FORMAT_FIELD);
+        if (format == null || format.asInt() != ENVELOPE_FORMAT) {
+            throw new IllegalStateException("Unsupported secured bank details format: " + format);
+        }
+        return true;
+    }
+
+    /**
+     * Reads a stored payload without decrypting it; secured fields are decrypted as they are read.
+     *
+     * @param id    the bank details id
+     * @param value the stored, encrypted payload
+     * @return the payload
+     */
+    public LazyBankDetailsPayload decryptLazily(final UUID id, final String value) {
+        final JsonNode document = readTree(value);
+        if (!(document instanceof ObjectNode)) {
+            throw new IllegalStateException("Could not read stored bank details for id: " + id);
+        }
+        return new LazyBankDetailsPayload(id, (ObjectNode) document, SECURED_FIELD_NAMES, fieldStrategy, mapper);
+    }
+
+    private JsonNode readTree(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return mapper.readTree(value);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
 }
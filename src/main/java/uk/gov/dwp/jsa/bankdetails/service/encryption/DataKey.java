@@ -0,0 +1,26 @@
+package uk.gov.dwp.jsa.bankdetails.service.encryption;
+
+import java.util.Arrays;
+
+/**
+ * A data key as handed out by a {@link DataKeyProvider}: the plaintext key used for local AES and the same key
+ * wrapped by the master key, which is what gets stored next to the cipher text.
+ */
+public final class DataKey {
+
+    private final byte[] plaintext;
+    private final byte[] encrypted;
+
+    public DataKey(final byte[] plaintext, final byte[] encrypted) {
+        this.plaintext = Arrays.copyOf(plaintext, plaintext.length);
+        this.encrypted = Arrays.copyOf(encrypted, encrypted.length);
+    }
+
+    public byte[] getPlaintext() {
+        return Arrays.copyOf(plaintext, plaintext.length);
+    }
+
+    public byte[] getEncrypted() {
+        return Arrays.copyOf(encrypted, encrypted.length);
+    }
+}
@@ -0,0 +1,112 @@
+package uk.gov.dwp.jsa.bankdetails.service.encryption;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches envelope encryption data keys so that only the first use of a key needs a round trip to the
+ * {@link DataKeyProvider}. A key is used for encryption until it is older than {@code maxAge} or has encrypted
+ * {@code maxUses} values; unwrapped keys are kept for decryption for {@code maxAge} after their last unwrap.
+ */
+public class DataKeyCache {
+
+    private static final int MAX_DECRYPTION_KEYS = 1000;
+
+    private final DataKeyProvider provider;
+    private final long maxAgeMillis;
+    private final long maxUses;
+    private final Clock clock;
+    private final Cache<String, SecretKey> decryptionKeys;
+    private volatile CurrentKey current;
+
+    public DataKeyCache(final DataKeyProvider provider, final Duration maxAge, final long maxUses) {
+        this(provider, maxAge, maxUses, Clock.systemUTC());
+    }
+
+    DataKeyCache(final DataKeyProvider provider, final Duration maxAge, final long maxUses, final Clock clock) {
+        this.provider = provider;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.maxUses = maxUses;
+        this.clock = clock;
+        this.decryptionKeys = Caffeine.newBuilder()
+                .maximumSize(MAX_DECRYPTION_KEYS)
+                .expireAfterWrite(maxAge)
+                .build();
+    }
+
+    /**
+     * @return the data key to encrypt the next value with, rotating it when it has expired or is used up
+     */
+    public LeasedKey encryptionKey() {
+        while (true) {
+            final CurrentKey key = current;
+            if (key != null && key.isUsable(clock.millis())) {
+                return key.leasedKey;
+            }
+            synchronized (this) {
+                if (current == key) {
+                    current = newKey();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param encryptedKey a wrapped data key read back from a cipher text
+     * @return the unwrapped data key, from the cache when this key has been seen recently
+     */
+    public SecretKey decryptionKey(final byte[] encryptedKey) {
+        return decryptionKeys.get(Base64.getEncoder().encodeToString(encryptedKey),
+                key -> new SecretKeySpec(provider.decryptDataKey(encryptedKey), "AES"));
+    }
+
+    private CurrentKey newKey() {
+        final DataKey dataKey = provider.generateDataKey();
+        final SecretKey secretKey = new SecretKeySpec(dataKey.getPlaintext(), "AES");
+        decryptionKeys.put(Base64.getEncoder().encodeToString(dataKey.getEncrypted()), secretKey);
+        return new CurrentKey(new LeasedKey(secretKey, dataKey.getEncrypted()), clock.millis() + maxAgeMillis);
+    }
+
+    private final class CurrentKey {
+        private final LeasedKey leasedKey;
+        private final long expiresAt;
+        private final AtomicLong uses = new AtomicLong();
+
+        private CurrentKey(final LeasedKey leasedKey, final long expiresAt) {
+            this.leasedKey = leasedKey;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isUsable(final long now) {
+            return now < expiresAt && uses.incrementAndGet() <= maxUses;
+        }
+    }
+
+    /**
+     * A data key handed out for encryption, with its wrapped form to store alongside the cipher text.
+     */
+    public static final class LeasedKey {
+        private final SecretKey key;
+        private final byte[] encryptedKey;
+
+        LeasedKey(final SecretKey key, final byte[] encryptedKey) {
+            this.key = key;
+            this.encryptedKey = encryptedKey;
+        }
+
+        public SecretKey getKey() {
+            return key;
+        }
+
+        public byte[] getEncryptedKey() {
+            return encryptedKey.clone();
+        }
+    }
+}
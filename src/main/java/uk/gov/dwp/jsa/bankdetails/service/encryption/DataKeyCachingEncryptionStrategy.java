@@ -0,0 +1,93 @@
+package uk.gov.dwp.jsa.bankdetails.service.encryption;
+
+import uk.gov.dwp.jsa.security.encryption.EncryptionStrategy;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * {@link EncryptionStrategy} that encrypts locally with AES-GCM under a cached data key from a
+ * {@link DataKeyCache}, storing the wrapped data key with each value. Values written before this strategy was
+ * enabled carry no {@link #PREFIX} and are handed to the previous strategy, so existing rows stay readable.
+ * <p>
+ * Values carrying the {@link #PREFIX} are always decrypted with their data key. With {@code encryptWithDataKeys}
+ * off new values are encrypted by the previous strategy, so data key caching can be turned off again without
+ * losing the rows written while it was on.
+ */
+public class DataKeyCachingEncryptionStrategy implements EncryptionStrategy {
+
+    static final String PREFIX = "dk1:";
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final EncryptionStrategy legacyStrategy;
+    private final DataKeyCache dataKeyCache;
+    private final boolean encryptWithDataKeys;
+    private final SecureRandom random = new SecureRandom();
+
+    public DataKeyCachingEncryptionStrategy(final EncryptionStrategy legacyStrategy,
+                                            final DataKeyCache dataKeyCache,
+                                            final boolean encryptWithDataKeys) {
+        this.legacyStrategy = legacyStrategy;
+        this.dataKeyCache = dataKeyCache;
+        this.encryptWithDataKeys = encryptWithDataKeys;
+    }
+
+    @Override
+    public String encrypt(final String value) {
+        if (value == null) {
+            return null;
+        }
+        if (!encryptWithDataKeys) {
+            return legacyStrategy.encrypt(value);
+        }
+        final DataKeyCache.LeasedKey leasedKey = dataKeyCache.encryptionKey();
+        final byte[] encryptedKey = leasedKey.getEncryptedKey();
+        final byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        try {
+            final Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, leasedKey.getKey(), new GCMParameterSpec(TAG_BITS, iv));
+            final byte[] cipherText = cipher.doFinal(value.getBytes(StandardCharsets.UTF_8));
+            final ByteBuffer envelope = ByteBuffer
+                    .allocate(Short.BYTES + encryptedKey.length + IV_BYTES + cipherText.length)
+                    .putShort((short) encryptedKey.length)
+                    .put(encryptedKey)
+                    .put(iv)
+                    .put(cipherText);
+            return PREFIX + Base64.getEncoder().encodeToString(envelope.array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encrypt value", e);
+        }
+    }
+
+    @Override
+    public String decrypt(final String value) {
+        if (value == null) {
+            return null;
+        }
+        if (!value.startsWith(PREFIX)) {
+            return legacyStrategy.decrypt(value);
+        }
+        final ByteBuffer envelope = ByteBuffer.wrap(Base64.getDecoder().decode(value.substring(PREFIX.length())));
+        final byte[] encryptedKey = new byte[envelope.getShort()];
+        envelope.get(encryptedKey);
+        final byte[] iv = new byte[IV_BYTES];
+        envelope.get(iv);
+        try {
+            final Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, dataKeyCache.decryptionKey(encryptedKey),
+                    new GCMParameterSpec(TAG_BITS, iv));
+            final byte[] plainText = cipher.doFinal(envelope.array(), envelope.position(), envelope.remaining());
+            return new String(plainText, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not decrypt value", e);
+        }
+    }
+}
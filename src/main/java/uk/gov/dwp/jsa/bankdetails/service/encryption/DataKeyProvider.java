@@ -0,0 +1,18 @@
+package uk.gov.dwp.jsa.bankdetails.service.encryption;
+
+/**
+ * Source of envelope encryption data keys.
+ */
+public interface DataKeyProvider {
+
+    /**
+     * @return a fresh 256 bit data key, in plaintext and wrapped by the master key
+     */
+    DataKey generateDataKey();
+
+    /**
+     * @param encryptedKey a data key previously returned by {@link #generateDataKey()}, in wrapped form
+     * @return the plaintext data key
+     */
+    byte[] decryptDataKey(byte[] encryptedKey);
+}
@@ -0,0 +1,46 @@
+package uk.gov.dwp.jsa.bankdetails.service.encryption;
+
+import com.amazonaws.services.kms.AWSKMS;
+import com.amazonaws.services.kms.model.DataKeySpec;
+import com.amazonaws.services.kms.model.DecryptRequest;
+import com.amazonaws.services.kms.model.GenerateDataKeyRequest;
+import com.amazonaws.services.kms.model.GenerateDataKeyResult;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link DataKeyProvider} backed by AWS KMS, wrapping data keys with the configured KMS key.
+ */
+public class KmsDataKeyProvider implements DataKeyProvider {
+
+    private final AWSKMS kms;
+    private final String keyId;
+
+    public KmsDataKeyProvider(final AWSKMS kms, final String keyId) {
+        this.kms = kms;
+        this.keyId = keyId;
+    }
+
+    @Override
+    public DataKey generateDataKey() {
+        final GenerateDataKeyResult result = kms.generateDataKey(new GenerateDataKeyRequest()
+                .withKeyId(keyId)
+                .withKeySpec(DataKeySpec.AES_256));
+        return new DataKey(toArray(result.getPlaintext()), toArray(result.getCiphertextBlob()));
+    }
+
+    @Override
+    public byte[] decryptDataKey(final byte[] encryptedKey) {
+        return toArray(kms.decrypt(new DecryptRequest()
+                .withKeyId(keyId)
+                .withCiphertextBlob(ByteBuffer.wrap(encryptedKey)))
+                .getPlaintext());
+    }
+
+    private static byte[] toArray(final ByteBuffer buffer) {
+        final ByteBuffer duplicate = buffer.duplicate();
+        final byte[] bytes = new byte[duplicate.remaining()];
+        duplicate.get(bytes);
+        return bytes;
+    }
+}
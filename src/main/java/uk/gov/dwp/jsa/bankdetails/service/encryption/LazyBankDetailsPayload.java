@@ -0,0 +1,105 @@
+package uk.gov.dwp.jsa.bankdetails.service.encryption;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+import uk.gov.dwp.jsa.security.encryption.EncryptionStrategy;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A stored bank details payload whose secured fields stay encrypted until they are read. In the per-field format
+ * each secured field is decrypted on its own when first read; in the single-envelope format the envelope is
+ * decrypted once, when the first secured field is read. Not thread safe.
+ */
+public final class LazyBankDetailsPayload {
+
+    /**
+     * The fields that can be read, secured or not.
+     */
+    public static final Set<String> FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+            "claimantId", "accountHolder", "sortCode", "accountNumber", "reference", "serviceVersion")));
+
+    private final UUID id;
+    private final ObjectNode document;
+    private final Set<String> securedFields;
+    private final EncryptionStrategy strategy;
+    private final ObjectMapper mapper;
+    private final Set<String> decrypted = new LinkedHashSet<>();
+    private ObjectNode envelope;
+
+    LazyBankDetailsPayload(final UUID id,
+                           final ObjectNode document,
+                           final Set<String> securedFields,
+                           final EncryptionStrategy strategy,
+                           final ObjectMapper mapper) {
+        this.id = id;
+        this.document = document;
+        this.securedFields = securedFields;
+        this.strategy = strategy;
+        this.mapper = mapper;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * @param field one of {@link #FIELDS}
+     * @return the plain value of the field, decrypting it first if it is secured and not yet decrypted
+     */
+    public JsonNode get(final String field) {
+        if (!securedFields.contains(field)) {
+            return document.get(field);
+        }
+        if (BankDetailsRequestJsonEncryption.isEnvelope(document)) {
+            return envelope().get(field);
+        }
+        final JsonNode value = document.get(field);
+        if (value == null || value.isNull() || decrypted.contains(field)) {
+            return value;
+        }
+        document.put(field, strategy.decrypt(value.asText()));
+        decrypted.add(field);
+        return document.get(field);
+    }
+
+    /**
+     * @param fields the fields to read, each one of {@link #FIELDS}
+     * @return bank details with only the given fields set; no other field is decrypted
+     */
+    public BankDetailsRequest select(final Collection<String> fields) {
+        final ObjectNode selected = mapper.createObjectNode();
+        for (final String field : fields) {
+            final JsonNode value = get(field);
+            if (value != null) {
+                selected.set(field, value);
+            }
+        }
+        try {
+            return mapper.treeToValue(selected, BankDetailsRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read selected bank details fields", e);
+        }
+    }
+
+    private ObjectNode envelope() {
+        if (envelope == null) {
+            final JsonNode cipherText = document.get(BankDetailsRequestJsonEncryption.ENVELOPE_FIELD);
+            final String plain = strategy.decrypt(cipherText.asText());
+            try {
+                envelope = (ObjectNode) mapper.readTree(plain);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not read secured bank details fields", e);
+            }
+        }
+        return envelope;
+    }
+}
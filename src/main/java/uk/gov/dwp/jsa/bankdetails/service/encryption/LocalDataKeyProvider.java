@@ -0,0 +1,65 @@
+package uk.gov.dwp.jsa.bankdetails.service.encryption;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * Offline stand-in for KMS. Data keys are wrapped with a local AES master key instead of a KMS key, so the
+ * data-key cache can be exercised in tests and on developer machines without AWS access. Not for production
+ * use: anyone holding the master key can unwrap every data key.
+ */
+public class LocalDataKeyProvider implements DataKeyProvider {
+
+    static final int KEY_BYTES = 32;
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKey masterKey;
+    private final SecureRandom random = new SecureRandom();
+
+    public LocalDataKeyProvider(final byte[] masterKey) {
+        if (masterKey.length != KEY_BYTES) {
+            throw new IllegalArgumentException("Local master key must be " + KEY_BYTES + " bytes");
+        }
+        this.masterKey = new SecretKeySpec(masterKey, "AES");
+    }
+
+    @Override
+    public DataKey generateDataKey() {
+        try {
+            final KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(KEY_BYTES * Byte.SIZE, random);
+            final byte[] plaintext = generator.generateKey().getEncoded();
+            return new DataKey(plaintext, wrap(plaintext));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate data key", e);
+        }
+    }
+
+    @Override
+    public byte[] decryptDataKey(final byte[] encryptedKey) {
+        try {
+            final Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, masterKey, new GCMParameterSpec(TAG_BITS, encryptedKey, 0, IV_BYTES));
+            return cipher.doFinal(encryptedKey, IV_BYTES, encryptedKey.length - IV_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not unwrap data key", e);
+        }
+    }
+
+    private byte[] wrap(final byte[] plaintext) throws GeneralSecurityException {
+        final byte[] iv = new byte[IV_BYTES];
+        random.nextBytes(iv);
+        final Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.ENCRYPT_MODE, masterKey, new GCMParameterSpec(TAG_BITS, iv));
+        final byte[] wrapped = cipher.doFinal(plaintext);
+        return ByteBuffer.allocate(IV_BYTES + wrapped.length).put(iv).put(wrapped).array();
+    }
+}
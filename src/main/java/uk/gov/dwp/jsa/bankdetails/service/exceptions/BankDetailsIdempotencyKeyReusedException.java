@@ -0,0 +1,8 @@
+package uk.gov.dwp.jsa.bankdetails.service.exceptions;
+
+import uk.gov.dwp.jsa.bankdetails.service.services.Constants;
+
+public class BankDetailsIdempotencyKeyReusedException extends RuntimeException {
+    static final String CODE = Constants.DEFAULT_ERROR_CODE;
+    static final String MESSAGE = "Idempotency key was already used with different bank details";
+}
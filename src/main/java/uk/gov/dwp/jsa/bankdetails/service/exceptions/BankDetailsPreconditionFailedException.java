@@ -0,0 +1,8 @@
+package uk.gov.dwp.jsa.bankdetails.service.exceptions;
+
+import uk.gov.dwp.jsa.bankdetails.service.services.Constants;
+
+public class BankDetailsPreconditionFailedException extends RuntimeException {
+    static final String CODE = Constants.DEFAULT_ERROR_CODE;
+    static final String MESSAGE = "Bank details have been changed since they were read";
+}
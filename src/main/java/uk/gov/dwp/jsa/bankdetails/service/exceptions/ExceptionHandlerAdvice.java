@@ -54,4 +54,74 @@ public class ExceptionHandlerAdvice {
                 ).build();
     }
 
+    @ExceptionHandler(BankDetailsIdempotencyKeyReusedException.class)
+    public final @ResponseBody
+    ResponseEntity<ApiResponse<String>> handleBankDetailsIdempotencyKeyReusedException(
+            final Exception ex,
+            final WebRequest request
+    ) {
+        return new ResponseBuilder<String>()
+                .withStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+                .withApiError(
+                        BankDetailsIdempotencyKeyReusedException.CODE,
+                        BankDetailsIdempotencyKeyReusedException.MESSAGE
+                ).build();
+    }
+
+    @ExceptionHandler(BankDetailsPreconditionFailedException.class)
+    public final @ResponseBody
+    ResponseEntity<ApiResponse<String>> handleBankDetailsPreconditionFailedException(
+            final Exception ex,
+            final WebRequest request
+    ) {
+        return new ResponseBuilder<String>()
+                .withStatus(HttpStatus.PRECONDITION_FAILED)
+                .withApiError(
+                        BankDetailsPreconditionFailedException.CODE,
+                        BankDetailsPreconditionFailedException.MESSAGE
+                ).build();
+    }
+
+    @ExceptionHandler(InvalidChangeFeedCursorException.class)
+    public final @ResponseBody
+    ResponseEntity<ApiResponse<String>> handleInvalidChangeFeedCursorException(
+            final Exception ex,
+            final WebRequest request
+    ) {
+        return new ResponseBuilder<String>()
+                .withStatus(HttpStatus.BAD_REQUEST)
+                .withApiError(
+                        InvalidChangeFeedCursorException.CODE,
+                        InvalidChangeFeedCursorException.MESSAGE
+                ).build();
+    }
+
+    @ExceptionHandler(InvalidFieldSelectionException.class)
+    public final @ResponseBody
+    ResponseEntity<ApiResponse<String>> handleInvalidFieldSelectionException(
+            final Exception ex,
+            final WebRequest request
+    ) {
+        return new ResponseBuilder<String>()
+                .withStatus(HttpStatus.BAD_REQUEST)
+                .withApiError(
+                        InvalidFieldSelectionException.CODE,
+                        InvalidFieldSelectionException.MESSAGE
+                ).build();
+    }
+
+    @ExceptionHandler(BankDetailsServiceBusyException.class)
+    public final @ResponseBody
+    ResponseEntity<ApiResponse<String>> handleBankDetailsServiceBusyException(
+            final Exception ex,
+            final WebRequest request
+    ) {
+        return new ResponseBuilder<String>()
+                .withStatus(HttpStatus.SERVICE_UNAVAILABLE)
+                .withApiError(
+                        BankDetailsServiceBusyException.CODE,
+                        BankDetailsServiceBusyException.MESSAGE
+                ).build();
+    }
+
 }
@@ -0,0 +1,117 @@
+package uk.gov.dwp.jsa.bankdetails.service.execution;
+
+import brave.Tracing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Component;
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsServiceBusyException;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking part of a read request, the database round trips and decryption, so the controller can
+ * return a {@link CompletableFuture} and free the servlet thread while it waits.
+ * <p>
+ * Disabled by default, in which case calls run inline on the servlet thread and the future is already complete.
+ * When enabled, calls run on a fixed pool of {@code app.async.threads} behind a queue of
+ * {@code app.async.queue-capacity}; once both are full further calls are refused with
+ * {@link BankDetailsServiceBusyException} rather than queued without bound. The pool size and queue depth are
+ * published as {@value #METRIC_NAME} executor metrics, and refusals counted in {@value #REJECTED_COUNTER}. The
+ * caller's security context and trace context are carried onto the pool thread.
+ */
+@Component
+public class BlockingCallExecutor {
+
+    static final String METRIC_NAME = "bank_details.blocking";
+    static final String REJECTED_COUNTER = "bank_details.blocking.rejected";
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private final ThreadPoolExecutor pool;
+    private final Executor executor;
+    private final Counter rejected;
+
+    @Autowired
+    public BlockingCallExecutor(
+            @Value("${app.async.enabled:false}") final boolean enabled,
+            @Value("${app.async.threads:32}") final int threads,
+            @Value("${app.async.queue-capacity:100}") final int queueCapacity,
+            final MeterRegistry registry,
+            final ObjectProvider<Tracing> tracing
+    ) {
+        this(enabled ? newPool(threads, queueCapacity) : null, registry, tracing.getIfAvailable());
+    }
+
+    BlockingCallExecutor(final ThreadPoolExecutor pool, final MeterRegistry registry, final Tracing tracing) {
+        this.pool = pool;
+        if (pool == null) {
+            this.executor = null;
+            this.rejected = null;
+            return;
+        }
+        final Executor monitored = ExecutorServiceMetrics.monitor(registry, pool, METRIC_NAME);
+        final Executor traced = tracing == null ? monitored : tracing.currentTraceContext().executor(monitored);
+        this.executor = new DelegatingSecurityContextExecutor(traced);
+        this.rejected = registry.counter(REJECTED_COUNTER);
+    }
+
+    /**
+     * @return an executor that runs every call inline
+     */
+    public static BlockingCallExecutor inline() {
+        return new BlockingCallExecutor(null, null, null);
+    }
+
+    /**
+     * Runs a blocking call, on the pool when enabled.
+     *
+     * @param call the call
+     * @param <T>  the result type
+     * @return the result; when inline it is already complete and a failure is thrown rather than returned
+     * @throws BankDetailsServiceBusyException when the pool and its queue are full
+     */
+    public <T> CompletableFuture<T> supply(final Supplier<T> call) {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(call.get());
+        }
+        try {
+            return CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new BankDetailsServiceBusyException();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private static ThreadPoolExecutor newPool(final int threads, final int queueCapacity) {
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads,
+                threads,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("bank-details-blocking-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Execution of blocking request work away from the servlet threads.
+ */
+package uk.gov.dwp.jsa.bankdetails.service.execution;
@@ -0,0 +1,4 @@
+/**
+ * Timings of the stages of the bank details pipeline.
+ */
+package uk.gov.dwp.jsa.bankdetails.service.metrics;
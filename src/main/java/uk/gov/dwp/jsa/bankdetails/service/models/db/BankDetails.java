@@ -12,6 +12,7 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -26,12 +27,15 @@ public class BankDetails {
     private UUID id;
     @CreationTimestamp
     private LocalDateTime createdTimestamp;
-    private String claimId;
+    @Column(name = "claim_id_uuid", unique = true, nullable = false)
+    private UUID claimId;
     @UpdateTimestamp
     private LocalDateTime updatedTimestamp;
     private String hash;
     private String source;
     private String serviceVersion;
+    @Version
+    private Long version;
     @Type(type = "jsonb")
     @Column(columnDefinition = "jsonb")
     private BankDetailsRequest bankDetailsJson;
@@ -50,7 +54,7 @@ public class BankDetails {
     }
 
     public BankDetails(
-            final String claimId,
+            final UUID claimId,
             final BankDetailsRequest bankDetailsJson,
             final String hash,
             final String source,
@@ -72,11 +76,11 @@ public class BankDetails {
         this.id = id;
     }
 
-    public String getClaimId() {
+    public UUID getClaimId() {
         return claimId;
     }
 
-    public void setClaimId(final String claimId) {
+    public void setClaimId(final UUID claimId) {
         this.claimId = claimId;
     }
 
@@ -127,4 +131,12 @@ public class BankDetails {
     public void setServiceVersion(final String serviceVersion) {
         this.serviceVersion = serviceVersion;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(final Long version) {
+        this.version = version;
+    }
 }
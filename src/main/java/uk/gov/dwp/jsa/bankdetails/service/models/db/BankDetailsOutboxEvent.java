@@ -0,0 +1,91 @@
+package uk.gov.dwp.jsa.bankdetails.service.models.db;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A bank details change waiting to be published, written in the same transaction as the change itself.
+ */
+@Entity
+@Table(name = "bank_details_outbox")
+public class BankDetailsOutboxEvent {
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    /**
+     * Assigned in blocks of 50 from the sequence, each value drawn being the lowest id of its block, so the values
+     * the outbox repository's native inserts draw for themselves never fall inside a block.
+     */
+    @Id
+    @GeneratedValue(generator = "bank_details_outbox_id")
+    @GenericGenerator(name = "bank_details_outbox_id", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "bank_details_outbox_id_seq"),
+                    @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+                    @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+            })
+    private Long id;
+    private String eventType;
+    private UUID bankDetailsId;
+    private UUID claimId;
+    private String hash;
+    @CreationTimestamp
+    private LocalDateTime createdTimestamp;
+
+    public BankDetailsOutboxEvent() {
+        // required by JPA
+    }
+
+    public BankDetailsOutboxEvent(final String eventType,
+                                  final UUID bankDetailsId,
+                                  final UUID claimId,
+                                  final String hash) {
+        this.eventType = eventType;
+        this.bankDetailsId = bankDetailsId;
+        this.claimId = claimId;
+        this.hash = hash;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(final Long id) {
+        this.id = id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public UUID getBankDetailsId() {
+        return bankDetailsId;
+    }
+
+    public UUID getClaimId() {
+        return claimId;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public LocalDateTime getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+
+    public void setCreatedTimestamp(final LocalDateTime createdTimestamp) {
+        this.createdTimestamp = createdTimestamp;
+    }
+}
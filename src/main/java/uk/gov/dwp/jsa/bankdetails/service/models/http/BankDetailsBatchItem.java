@@ -0,0 +1,40 @@
+package uk.gov.dwp.jsa.bankdetails.service.models.http;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.UUID;
+
+public class BankDetailsBatchItem {
+
+    @NotNull
+    private UUID claimId;
+
+    @NotNull
+    @Valid
+    private BankDetailsRequest bankDetails;
+
+    public BankDetailsBatchItem() {
+        // required by jackson
+    }
+
+    public BankDetailsBatchItem(final UUID claimId, final BankDetailsRequest bankDetails) {
+        this.claimId = claimId;
+        this.bankDetails = bankDetails;
+    }
+
+    public UUID getClaimId() {
+        return claimId;
+    }
+
+    public void setClaimId(final UUID claimId) {
+        this.claimId = claimId;
+    }
+
+    public BankDetailsRequest getBankDetails() {
+        return bankDetails;
+    }
+
+    public void setBankDetails(final BankDetailsRequest bankDetails) {
+        this.bankDetails = bankDetails;
+    }
+}
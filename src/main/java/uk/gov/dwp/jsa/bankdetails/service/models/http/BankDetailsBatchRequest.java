@@ -0,0 +1,32 @@
+package uk.gov.dwp.jsa.bankdetails.service.models.http;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+public class BankDetailsBatchRequest {
+
+    public static final int MAX_ITEMS = 5000;
+
+    @NotEmpty
+    @Size(max = MAX_ITEMS)
+    private List<@NotNull @Valid BankDetailsBatchItem> items;
+
+    public BankDetailsBatchRequest() {
+        // required by jackson
+    }
+
+    public BankDetailsBatchRequest(final List<BankDetailsBatchItem> items) {
+        this.items = items;
+    }
+
+    public List<BankDetailsBatchItem> getItems() {
+        return items;
+    }
+
+    public void setItems(final List<BankDetailsBatchItem> items) {
+        this.items = items;
+    }
+}
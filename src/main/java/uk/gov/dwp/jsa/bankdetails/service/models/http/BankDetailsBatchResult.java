@@ -0,0 +1,63 @@
+package uk.gov.dwp.jsa.bankdetails.service.models.http;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Objects;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BankDetailsBatchResult {
+
+    public enum Status {
+        CREATED,
+        CONFLICT
+    }
+
+    private final UUID claimId;
+    private final Status status;
+    private final UUID id;
+
+    private BankDetailsBatchResult(final UUID claimId, final Status status, final UUID id) {
+        this.claimId = claimId;
+        this.status = status;
+        this.id = id;
+    }
+
+    public static BankDetailsBatchResult created(final UUID claimId, final UUID id) {
+        Objects.requireNonNull(id);
+        return new BankDetailsBatchResult(claimId, Status.CREATED, id);
+    }
+
+    public static BankDetailsBatchResult conflict(final UUID claimId) {
+        return new BankDetailsBatchResult(claimId, Status.CONFLICT, null);
+    }
+
+    public UUID getClaimId() {
+        return claimId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final BankDetailsBatchResult that = (BankDetailsBatchResult) o;
+        return Objects.equals(claimId, that.claimId) && status == that.status && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(claimId, status, id);
+    }
+}
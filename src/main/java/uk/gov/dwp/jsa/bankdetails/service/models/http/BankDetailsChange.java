@@ -0,0 +1,65 @@
+package uk.gov.dwp.jsa.bankdetails.service.models.http;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * An entry of the change feed: which bank details changed and when, without their content.
+ */
+public class BankDetailsChange {
+
+    private final UUID id;
+    private final UUID claimId;
+    private final String hash;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private final LocalDateTime updatedTimestamp;
+
+    public BankDetailsChange(final UUID id,
+                             final UUID claimId,
+                             final String hash,
+                             final LocalDateTime updatedTimestamp) {
+        this.id = id;
+        this.claimId = claimId;
+        this.hash = hash;
+        this.updatedTimestamp = updatedTimestamp;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getClaimId() {
+        return claimId;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public LocalDateTime getUpdatedTimestamp() {
+        return updatedTimestamp;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final BankDetailsChange that = (BankDetailsChange) o;
+        return Objects.equals(id, that.id)
+                && Objects.equals(claimId, that.claimId)
+                && Objects.equals(hash, that.hash)
+                && Objects.equals(updatedTimestamp, that.updatedTimestamp);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, claimId, hash, updatedTimestamp);
+    }
+}
@@ -0,0 +1,26 @@
+package uk.gov.dwp.jsa.bankdetails.service.models.http;
+
+import java.util.List;
+
+/**
+ * A page of the change feed, in (updatedTimestamp, id) order, and the cursor to pass for the next page. When there
+ * are no newer changes the cursor is the one that was passed in, so consumers can keep polling with it.
+ */
+public class BankDetailsChangePage {
+
+    private final List<BankDetailsChange> changes;
+    private final String nextCursor;
+
+    public BankDetailsChangePage(final List<BankDetailsChange> changes, final String nextCursor) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<BankDetailsChange> getChanges() {
+        return changes;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,49 @@
+package uk.gov.dwp.jsa.bankdetails.service.models.http;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One line of a bank details export.
+ */
+public class BankDetailsExportLine {
+
+    private final UUID id;
+    private final UUID claimId;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private final LocalDateTime createdTimestamp;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private final LocalDateTime updatedTimestamp;
+    private final BankDetailsResponse bankDetails;
+
+    public BankDetailsExportLine(final BankDetails bankDetails) {
+        this.id = bankDetails.getId();
+        this.claimId = bankDetails.getClaimId();
+        this.createdTimestamp = bankDetails.getCreatedTimestamp();
+        this.updatedTimestamp = bankDetails.getUpdatedTimestamp();
+        this.bankDetails = new BankDetailsResponse(bankDetails);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getClaimId() {
+        return claimId;
+    }
+
+    public LocalDateTime getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+
+    public LocalDateTime getUpdatedTimestamp() {
+        return updatedTimestamp;
+    }
+
+    public BankDetailsResponse getBankDetails() {
+        return bankDetails;
+    }
+}
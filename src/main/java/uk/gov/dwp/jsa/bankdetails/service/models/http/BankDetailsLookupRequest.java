@@ -0,0 +1,32 @@
+package uk.gov.dwp.jsa.bankdetails.service.models.http;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+public class BankDetailsLookupRequest {
+
+    public static final int MAX_CLAIM_IDS = 1000;
+
+    @NotEmpty
+    @Size(max = MAX_CLAIM_IDS)
+    private List<@NotNull UUID> claimIds;
+
+    public BankDetailsLookupRequest() {
+        // required by jackson
+    }
+
+    public BankDetailsLookupRequest(final List<UUID> claimIds) {
+        this.claimIds = claimIds;
+    }
+
+    public List<UUID> getClaimIds() {
+        return claimIds;
+    }
+
+    public void setClaimIds(final List<UUID> claimIds) {
+        this.claimIds = claimIds;
+    }
+}
@@ -0,0 +1,56 @@
+package uk.gov.dwp.jsa.bankdetails.service.models.http;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Objects;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BankDetailsLookupResult {
+
+    public enum Status {
+        FOUND,
+        NOT_FOUND
+    }
+
+    private final Status status;
+    private final BankDetailsResponse bankDetails;
+
+    private BankDetailsLookupResult(final Status status, final BankDetailsResponse bankDetails) {
+        this.status = status;
+        this.bankDetails = bankDetails;
+    }
+
+    public static BankDetailsLookupResult found(final BankDetailsResponse bankDetails) {
+        Objects.requireNonNull(bankDetails);
+        return new BankDetailsLookupResult(Status.FOUND, bankDetails);
+    }
+
+    public static BankDetailsLookupResult notFound() {
+        return new BankDetailsLookupResult(Status.NOT_FOUND, null);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public BankDetailsResponse getBankDetails() {
+        return bankDetails;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final BankDetailsLookupResult that = (BankDetailsLookupResult) o;
+        return status == that.status && Objects.equals(bankDetails, that.bankDetails);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, bankDetails);
+    }
+}
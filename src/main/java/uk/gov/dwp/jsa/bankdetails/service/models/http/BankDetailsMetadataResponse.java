@@ -0,0 +1,61 @@
+package uk.gov.dwp.jsa.bankdetails.service.models.http;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsMetadata;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * When and by what the bank details of a claim were stored, without the bank details themselves.
+ */
+public class BankDetailsMetadataResponse {
+
+    private final UUID id;
+    private final String hash;
+    private final Long version;
+    private final String source;
+    private final String serviceVersion;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private final LocalDateTime createdTimestamp;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private final LocalDateTime updatedTimestamp;
+
+    public BankDetailsMetadataResponse(final BankDetailsMetadata metadata) {
+        this.id = metadata.getId();
+        this.hash = metadata.getHash();
+        this.version = metadata.getVersion();
+        this.source = metadata.getSource();
+        this.serviceVersion = metadata.getServiceVersion();
+        this.createdTimestamp = metadata.getCreatedTimestamp();
+        this.updatedTimestamp = metadata.getUpdatedTimestamp();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getServiceVersion() {
+        return serviceVersion;
+    }
+
+    public LocalDateTime getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+
+    public LocalDateTime getUpdatedTimestamp() {
+        return updatedTimestamp;
+    }
+}
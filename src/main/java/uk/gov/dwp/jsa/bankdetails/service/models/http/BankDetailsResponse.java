@@ -1,28 +1,41 @@
 package uk.gov.dwp.jsa.bankdetails.service.models.http;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.springframework.beans.BeanUtils;
 import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
 
 import java.util.Objects;
+import java.util.UUID;
 
 public class BankDetailsResponse extends BankDetailsRequest {
 
     public BankDetailsResponse(final BankDetails bankDetails) {
         Objects.requireNonNull(bankDetails);
         Objects.requireNonNull(bankDetails.getBankDetailsJson());
-        BeanUtils.copyProperties(bankDetails.getBankDetailsJson(), this);
+        BankDetailsFields.copy(bankDetails.getBankDetailsJson(), this);
         this.setId(bankDetails.getId());
     }
 
+    /**
+     * @param id     the bank details id
+     * @param fields the bank details, possibly only some of their fields
+     */
+    public BankDetailsResponse(final UUID id, final BankDetailsRequest fields) {
+        BankDetailsFields.copy(fields, this);
+        this.setId(id);
+    }
+
     @Override
     public boolean equals(final Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        return BankDetailsFields.equal(this, (BankDetailsResponse) obj);
     }
 
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        return BankDetailsFields.hash(this);
     }
 }
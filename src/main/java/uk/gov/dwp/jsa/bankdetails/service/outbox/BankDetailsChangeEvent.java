@@ -0,0 +1,82 @@
+package uk.gov.dwp.jsa.bankdetails.service.outbox;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetailsOutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A published bank details change. It carries no bank details; consumers that need them read them by id, using
+ * the hash to skip changes they have already seen.
+ */
+public class BankDetailsChangeEvent {
+
+    private Long sequence;
+    private String type;
+    private UUID id;
+    private UUID claimId;
+    private String hash;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private LocalDateTime occurredAt;
+
+    public BankDetailsChangeEvent() {
+        // required by Jackson
+    }
+
+    public BankDetailsChangeEvent(final BankDetailsOutboxEvent event) {
+        this.sequence = event.getId();
+        this.type = event.getEventType();
+        this.id = event.getBankDetailsId();
+        this.claimId = event.getClaimId();
+        this.hash = event.getHash();
+        this.occurredAt = event.getCreatedTimestamp();
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getClaimId() {
+        return claimId;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final BankDetailsChangeEvent that = (BankDetailsChangeEvent) o;
+        return Objects.equals(sequence, that.sequence)
+                && Objects.equals(type, that.type)
+                && Objects.equals(id, that.id)
+                && Objects.equals(claimId, that.claimId)
+                && Objects.equals(hash, that.hash)
+                && Objects.equals(occurredAt, that.occurredAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sequence, type, id, claimId, hash, occurredAt);
+    }
+}
@@ -0,0 +1,17 @@
+package uk.gov.dwp.jsa.bankdetails.service.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where the relay publishes change events. A batch is removed from the outbox only after {@link #publish} returns,
+ * so a sink may see a batch again after a failure and consumers must tolerate duplicates.
+ */
+public interface BankDetailsEventSink {
+
+    /**
+     * @param events the events, oldest first
+     * @throws IOException when the events could not be published; they are retried on the next run
+     */
+    void publish(List<BankDetailsChangeEvent> events) throws IOException;
+}
@@ -0,0 +1,46 @@
+package uk.gov.dwp.jsa.bankdetails.service.outbox;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a file as newline-delimited JSON. Each batch is written with one call and forced to disk
+ * before {@link #publish} returns, so no event is removed from the outbox before it is durable in the file.
+ */
+public class FileEventSink implements BankDetailsEventSink {
+
+    private final Path file;
+    private final ObjectWriter writer;
+
+    public FileEventSink(final Path file, final ObjectMapper mapper) {
+        this.file = file;
+        this.writer = mapper.writerFor(BankDetailsChangeEvent.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public synchronized void publish(final List<BankDetailsChangeEvent> events) throws IOException {
+        final ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (final BankDetailsChangeEvent event : events) {
+            writer.writeValue(lines, event);
+            lines.write('\n');
+        }
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
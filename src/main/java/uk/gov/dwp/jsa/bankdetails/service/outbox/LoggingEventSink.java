@@ -0,0 +1,29 @@
+package uk.gov.dwp.jsa.bankdetails.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Publishes each event as a JSON log line, for running without a broker.
+ */
+public class LoggingEventSink implements BankDetailsEventSink {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoggingEventSink.class);
+
+    private final ObjectWriter writer;
+
+    public LoggingEventSink(final ObjectMapper mapper) {
+        this.writer = mapper.writerFor(BankDetailsChangeEvent.class);
+    }
+
+    @Override
+    public void publish(final List<BankDetailsChangeEvent> events) throws IOException {
+        for (final BankDetailsChangeEvent event : events) {
+            LOGGER.info("Bank details changed: {}", writer.writeValueAsString(event));
+        }
+    }
+}
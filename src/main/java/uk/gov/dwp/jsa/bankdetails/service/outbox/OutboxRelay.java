@@ -0,0 +1,83 @@
+package uk.gov.dwp.jsa.bankdetails.service.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionOperations;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetailsOutboxEvent;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsOutboxRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves events from the outbox table to the sink. Each batch is locked, published and deleted in one transaction,
+ * so an event is delivered at least once; batches locked by a relay on another instance are skipped.
+ */
+public class OutboxRelay {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final BankDetailsOutboxRepository repository;
+    private final BankDetailsEventSink sink;
+    private final TransactionOperations transactionOperations;
+    private final int batchSize;
+    private final Counter published;
+
+    public OutboxRelay(final BankDetailsOutboxRepository repository,
+                       final BankDetailsEventSink sink,
+                       final TransactionOperations transactionOperations,
+                       final int batchSize,
+                       final MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.sink = sink;
+        this.transactionOperations = transactionOperations;
+        this.batchSize = batchSize;
+        this.published = Counter.builder("bank_details.outbox.published")
+                .description("Bank details change events published from the outbox")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes batches until the outbox holds less than a full batch.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval:PT1S}")
+    public void relay() {
+        try {
+            int count;
+            do {
+                count = publishBatch();
+            } while (count == batchSize);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Publishing bank details change events failed, will retry", e);
+        }
+    }
+
+    int publishBatch() {
+        final Integer count = transactionOperations.execute(status -> {
+            final List<BankDetailsOutboxEvent> batch = repository.lockOldest(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            final List<BankDetailsChangeEvent> events = new ArrayList<>(batch.size());
+            final List<Long> ids = new ArrayList<>(batch.size());
+            batch.forEach(event -> {
+                events.add(new BankDetailsChangeEvent(event));
+                ids.add(event.getId());
+            });
+            try {
+                sink.publish(events);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            repository.deleteByIds(ids);
+            return batch.size();
+        });
+        published.increment(count);
+        return count;
+    }
+}
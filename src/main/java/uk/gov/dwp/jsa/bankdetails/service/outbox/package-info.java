@@ -0,0 +1,4 @@
+/**
+ * Publishing of bank details change events recorded in the outbox table.
+ */
+package uk.gov.dwp.jsa.bankdetails.service.outbox;
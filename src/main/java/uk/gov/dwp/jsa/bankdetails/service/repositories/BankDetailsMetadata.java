@@ -0,0 +1,20 @@
+package uk.gov.dwp.jsa.bankdetails.service.repositories;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of everything about a bank details row except the encrypted payload, so reading it runs no crypto.
+ */
+public interface BankDetailsMetadata extends BankDetailsTag {
+
+    UUID getId();
+
+    String getSource();
+
+    String getServiceVersion();
+
+    LocalDateTime getCreatedTimestamp();
+
+    LocalDateTime getUpdatedTimestamp();
+}
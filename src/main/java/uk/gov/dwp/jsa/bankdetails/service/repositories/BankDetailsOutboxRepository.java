@@ -0,0 +1,67 @@
+package uk.gov.dwp.jsa.bankdetails.service.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetailsOutboxEvent;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BankDetailsOutboxRepository extends CrudRepository<BankDetailsOutboxEvent, Long> {
+
+    /**
+     * Hibernate's value for {@code javax.persistence.lock.timeout} that renders {@code SKIP LOCKED}.
+     */
+    String SKIP_LOCKED = "-2";
+
+    /**
+     * Native, since HQL cannot take ids from the entity's sequence in an insert-select. The id is left to the column
+     * default, which draws from the same sequence. Hibernate's pooled-lo optimizer uses each value it draws as the
+     * lowest id of a block of 50, so a value drawn here is never inside one of its blocks. The pooled optimizer
+     * would not do: it uses a value as the highest id of its block, and when the first value it draws is the
+     * sequence's start it draws again and takes every id from there, including values drawn here in between.
+     */
+    String RECORD_FROM_BANK_DETAILS = "insert into {h-schema}bank_details_outbox "
+            + "(event_type, bank_details_id, claim_id, hash, created_timestamp) select ";
+    String FROM_BANK_DETAILS = ", b.id, b.claim_id_uuid, b.hash, localtimestamp "
+            + "from {h-schema}bank_details b where b.id = :id";
+
+    /**
+     * Locks the oldest unpublished events, skipping any another relay instance holds, so that relays on several
+     * instances publish disjoint batches.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select e from BankDetailsOutboxEvent e order by e.id")
+    List<BankDetailsOutboxEvent> lockOldest(final Pageable page);
+
+    @Modifying
+    @Query("delete from BankDetailsOutboxEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") final Collection<Long> ids);
+
+    /**
+     * Records an update from the row itself, so the claim id and new hash need not be read first.
+     */
+    @Modifying
+    @Query(value = RECORD_FROM_BANK_DETAILS + "'" + BankDetailsOutboxEvent.UPDATED + "'" + FROM_BANK_DETAILS,
+            nativeQuery = true)
+    int recordUpdated(@Param("id") final UUID id);
+
+    /**
+     * Records a deletion from the row itself; must run before the row is deleted.
+     */
+    @Modifying
+    @Query(value = RECORD_FROM_BANK_DETAILS + "'" + BankDetailsOutboxEvent.DELETED + "'" + FROM_BANK_DETAILS,
+            nativeQuery = true)
+    int recordDeleted(@Param("id") final UUID id);
+}
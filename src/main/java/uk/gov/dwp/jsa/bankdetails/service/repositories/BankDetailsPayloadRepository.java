@@ -0,0 +1,18 @@
+package uk.gov.dwp.jsa.bankdetails.service.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads of the stored payload that bypass the entity's jsonb type, so that nothing is decrypted on load.
+ */
+public interface BankDetailsPayloadRepository {
+
+    Optional<TaggedBankDetailsPayload> findPayloadById(UUID id);
+
+    Optional<TaggedBankDetailsPayload> findPayloadByClaimId(UUID claimId);
+
+    List<EncryptedBankDetails> findEncryptedByClaimIdIn(Collection<UUID> claimIds);
+}
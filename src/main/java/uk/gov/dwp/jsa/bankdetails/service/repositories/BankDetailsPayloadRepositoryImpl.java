@@ -0,0 +1,78 @@
+package uk.gov.dwp.jsa.bankdetails.service.repositories;
+
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.BankDetailsRequestJsonEncryption;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * jOOQ implementation of {@link BankDetailsPayloadRepository}, mixed into {@link BankDetailsRepository} by
+ * Spring Data. The payload is read as text and handed to {@link BankDetailsRequestJsonEncryption} still encrypted.
+ */
+@Repository
+public class BankDetailsPayloadRepositoryImpl implements BankDetailsPayloadRepository {
+
+    private static final String TABLE_NAME = "bank_details";
+    private static final String SELECT_PAYLOAD =
+            "select id, hash, version, cast(bank_details_json as text) as payload from {0} ";
+    private static final String SELECT_CLAIM_PAYLOADS = "select id, claim_id_uuid, "
+            + "cast(bank_details_json as text) as payload from {0} where claim_id_uuid in ({1})";
+
+    private final DSLContext dsl;
+    private final BankDetailsRequestJsonEncryption encryption;
+    private final Table<Record> table;
+
+    public BankDetailsPayloadRepositoryImpl(
+            final DSLContext dsl,
+            final BankDetailsRequestJsonEncryption encryption,
+            final @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema
+    ) {
+        this.dsl = dsl;
+        this.encryption = encryption;
+        this.table = schema.isEmpty()
+                ? DSL.table(DSL.name(TABLE_NAME))
+                : DSL.table(DSL.name(schema, TABLE_NAME));
+    }
+
+    @Override
+    public Optional<TaggedBankDetailsPayload> findPayloadById(final UUID id) {
+        return findPayload(SELECT_PAYLOAD + "where id = {1}", id);
+    }
+
+    @Override
+    public Optional<TaggedBankDetailsPayload> findPayloadByClaimId(final UUID claimId) {
+        return findPayload(SELECT_PAYLOAD + "where claim_id_uuid = {1}", claimId);
+    }
+
+    @Override
+    public List<EncryptedBankDetails> findEncryptedByClaimIdIn(final Collection<UUID> claimIds) {
+        if (claimIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return dsl.resultQuery(SELECT_CLAIM_PAYLOADS, table,
+                DSL.list(claimIds.stream().map(DSL::val).collect(Collectors.toList())))
+                .fetch(record -> new EncryptedBankDetails(
+                        record.get("id", UUID.class),
+                        record.get("claim_id_uuid", UUID.class),
+                        record.get("payload", String.class)));
+    }
+
+    private Optional<TaggedBankDetailsPayload> findPayload(final String sql, final UUID key) {
+        return dsl.resultQuery(sql, table, DSL.val(key))
+                .fetchOptional()
+                .map(record -> new TaggedBankDetailsPayload(
+                        encryption.decryptLazily(record.get("id", UUID.class), record.get("payload", String.class)),
+                        record.get("hash", String.class),
+                        record.get("version", Long.class)));
+    }
+}
@@ -1,13 +1,139 @@
 package uk.gov.dwp.jsa.bankdetails.service.repositories;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsChange;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
-public interface BankDetailsRepository extends CrudRepository<BankDetails, UUID> {
-    Optional<BankDetails> findByClaimId(final String claimId);
+public interface BankDetailsRepository extends CrudRepository<BankDetails, UUID>, BankDetailsUpsertRepository,
+        BankDetailsPayloadRepository {
+    Optional<BankDetails> findByClaimId(final UUID claimId);
+
+    @Query("select b.hash as hash, b.version as version from BankDetails b where b.id = :id")
+    Optional<BankDetailsTag> findTagById(@Param("id") final UUID id);
+
+    @Query("select b.hash as hash, b.version as version from BankDetails b where b.claimId = :claimId")
+    Optional<BankDetailsTag> findTagByClaimId(@Param("claimId") final UUID claimId);
+
+    @Query("select b.id as id, b.hash as hash, b.version as version, b.source as source, "
+            + "b.serviceVersion as serviceVersion, b.createdTimestamp as createdTimestamp, "
+            + "b.updatedTimestamp as updatedTimestamp from BankDetails b where b.claimId = :claimId")
+    Optional<BankDetailsMetadata> findMetadataByClaimId(@Param("claimId") final UUID claimId);
+
+    String UPDATE_BANK_DETAILS = "update BankDetails b set b.bankDetailsJson = :bankDetailsJson, b.hash = :hash, "
+            + "b.source = :source, b.serviceVersion = :serviceVersion, b.updatedTimestamp = CURRENT_TIMESTAMP, "
+            + "b.version = b.version + 1 where b.id = :id and (b.hash is null or b.hash <> :hash)";
+
+    /**
+     * Overwrites the bank details in a single statement, unless they already hold the given hash.
+     *
+     * @return the number of rows written, 0 when the id is unknown or the bank details are unchanged
+     */
+    @Transactional
+    @Modifying
+    @Query(UPDATE_BANK_DETAILS)
+    int updateBankDetails(@Param("id") final UUID id,
+                          @Param("bankDetailsJson") final BankDetailsRequest bankDetailsJson,
+                          @Param("hash") final String hash,
+                          @Param("source") final String source,
+                          @Param("serviceVersion") final String serviceVersion);
+
+    /**
+     * As {@link #updateBankDetails}, but only while the row is still at the given version.
+     *
+     * @return the number of rows written, 0 when the id is unknown, the version is stale or nothing changed
+     */
+    @Transactional
+    @Modifying
+    @Query(UPDATE_BANK_DETAILS + " and b.version = :version")
+    int updateBankDetailsIfVersion(@Param("id") final UUID id,
+                                   @Param("version") final Long version,
+                                   @Param("bankDetailsJson") final BankDetailsRequest bankDetailsJson,
+                                   @Param("hash") final String hash,
+                                   @Param("source") final String source,
+                                   @Param("serviceVersion") final String serviceVersion);
+
+    /**
+     * Deletes the bank details without first loading them, as {@link #deleteById} would.
+     *
+     * @return the number of rows deleted, 0 when the id is unknown
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from BankDetails b where b.id = :id")
+    int deleteBankDetailsById(@Param("id") final UUID id);
+
+    /**
+     * Rows fetched per round trip by the export streams, which keeps memory flat however large the window.
+     */
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Streams the bank details updated in {@code [from, to)} through a forward-only cursor. Must be consumed and
+     * closed inside a transaction, so that the driver can fetch in batches of {@value #EXPORT_FETCH_SIZE}.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select b from BankDetails b where b.updatedTimestamp >= :from and b.updatedTimestamp < :to")
+    Stream<BankDetails> streamByUpdatedTimestamp(@Param("from") final LocalDateTime from,
+                                                 @Param("to") final LocalDateTime to);
+
+    /**
+     * As {@link #streamByUpdatedTimestamp}, for the bank details created in {@code [from, to)}.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select b from BankDetails b where b.createdTimestamp >= :from and b.createdTimestamp < :to")
+    Stream<BankDetails> streamByCreatedTimestamp(@Param("from") final LocalDateTime from,
+                                                 @Param("to") final LocalDateTime to);
+
+    String CHANGE_FEED_SELECT = "select new uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsChange("
+            + "b.id, b.claimId, b.hash, b.updatedTimestamp) from BankDetails b ";
+
+    /**
+     * First page of the change feed, oldest change first.
+     */
+    @Query(CHANGE_FEED_SELECT
+            + "where b.updatedTimestamp < :before "
+            + "order by b.updatedTimestamp, b.id")
+    List<BankDetailsChange> findChanges(@Param("before") final LocalDateTime before, final Pageable page);
+
+    /**
+     * Page of the change feed after the (updatedTimestamp, id) cursor. The leading range condition lets the
+     * (updated_timestamp, id) index start the scan at the cursor.
+     */
+    @Query(CHANGE_FEED_SELECT
+            + "where b.updatedTimestamp >= :afterTimestamp and b.updatedTimestamp < :before "
+            + "and (b.updatedTimestamp > :afterTimestamp or b.id > :afterId) "
+            + "order by b.updatedTimestamp, b.id")
+    List<BankDetailsChange> findChangesAfter(@Param("afterTimestamp") final LocalDateTime afterTimestamp,
+                                             @Param("afterId") final UUID afterId,
+                                             @Param("before") final LocalDateTime before,
+                                             final Pageable page);
+
+    @Query("select b.claimId from BankDetails b where b.claimId in :claimIds")
+    List<UUID> findExistingClaimIds(@Param("claimIds") final Collection<UUID> claimIds);
 }
@@ -0,0 +1,12 @@
+package uk.gov.dwp.jsa.bankdetails.service.repositories;
+
+/**
+ * Projection of the columns that identify the current state of a bank details row, read without touching the
+ * encrypted payload.
+ */
+public interface BankDetailsTag {
+
+    String getHash();
+
+    Long getVersion();
+}
@@ -0,0 +1,24 @@
+package uk.gov.dwp.jsa.bankdetails.service.repositories;
+
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsCreateResult;
+
+import java.util.Optional;
+
+/**
+ * Writes that Spring Data cannot express as a single statement.
+ */
+public interface BankDetailsUpsertRepository {
+
+    /**
+     * Inserts the bank details unless the claim already has some, in one statement that never raises a
+     * constraint violation. Existing bank details are looked up first, so they are found without encrypting the
+     * new ones.
+     *
+     * @param bankDetails    the bank details to insert, the id is generated here
+     * @param idempotencyKey the idempotency key of the request, stored with the inserted bank details
+     * @return the id of the inserted or already existing bank details, and whether they were inserted; empty only
+     * when a concurrent insert for the same claim is not yet visible to the statement
+     */
+    Optional<BankDetailsCreateResult> insertIfAbsent(BankDetails bankDetails, String idempotencyKey);
+}
@@ -0,0 +1,86 @@
+package uk.gov.dwp.jsa.bankdetails.service.repositories;
+
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.BankDetailsRequestJsonEncryption;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsCreateResult;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * jOOQ implementation of {@link BankDetailsUpsertRepository}, mixed into {@link BankDetailsRepository} by
+ * Spring Data.
+ * <p>
+ * The payload does not go through Hibernate, so it is encrypted here with the same
+ * {@link BankDetailsRequestJsonEncryption} that backs the entity's jsonb type.
+ */
+@Repository
+public class BankDetailsUpsertRepositoryImpl implements BankDetailsUpsertRepository {
+
+    private static final String TABLE_NAME = "bank_details";
+    private static final String SELECT_EXISTING = "select id, false as inserted, hash, idempotency_key from {0} "
+            + "where claim_id_uuid = {1}";
+    private static final String INSERT_IF_ABSENT = "with inserted as ("
+            + "insert into {0} (id, claim_id_uuid, created_timestamp, updated_timestamp, hash, source, "
+            + "service_version, version, bank_details_json, idempotency_key) "
+            + "values ({1}, {2}, localtimestamp, localtimestamp, {3}, {4}, {5}, 0, cast({6} as jsonb), {7}) "
+            + "on conflict (claim_id_uuid) do nothing returning id, hash, idempotency_key) "
+            + "select id, true as inserted, hash, idempotency_key from inserted "
+            + "union all select id, false as inserted, hash, idempotency_key from {0} where claim_id_uuid = {2} "
+            + "limit 1";
+
+    private final DSLContext dsl;
+    private final BankDetailsRequestJsonEncryption encryption;
+    private final Table<Record> table;
+
+    public BankDetailsUpsertRepositoryImpl(
+            final DSLContext dsl,
+            final BankDetailsRequestJsonEncryption encryption,
+            final @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema
+    ) {
+        this.dsl = dsl;
+        this.encryption = encryption;
+        this.table = schema.isEmpty()
+                ? DSL.table(DSL.name(TABLE_NAME))
+                : DSL.table(DSL.name(schema, TABLE_NAME));
+    }
+
+    @Override
+    public Optional<BankDetailsCreateResult> insertIfAbsent(final BankDetails bankDetails,
+                                                            final String idempotencyKey) {
+        final Optional<BankDetailsCreateResult> existing = dsl.resultQuery(SELECT_EXISTING,
+                table,
+                DSL.val(bankDetails.getClaimId()))
+                .fetchOptional()
+                .map(BankDetailsUpsertRepositoryImpl::toResult);
+        if (existing.isPresent()) {
+            return existing;
+        }
+        final UUID id = UUID.randomUUID();
+        return dsl.resultQuery(INSERT_IF_ABSENT,
+                table,
+                DSL.val(id),
+                DSL.val(bankDetails.getClaimId()),
+                DSL.val(bankDetails.getHash()),
+                DSL.val(bankDetails.getSource()),
+                DSL.val(bankDetails.getServiceVersion()),
+                DSL.val(encryption.encrypt(bankDetails.getBankDetailsJson())),
+                DSL.val(idempotencyKey))
+                .fetchOptional()
+                .map(BankDetailsUpsertRepositoryImpl::toResult);
+    }
+
+    private static BankDetailsCreateResult toResult(final Record record) {
+        final UUID id = record.get("id", UUID.class);
+        return record.get("inserted", Boolean.class)
+                ? BankDetailsCreateResult.created(id)
+                : BankDetailsCreateResult.existing(id, record.get("hash", String.class),
+                        record.get("idempotency_key", String.class));
+    }
+}
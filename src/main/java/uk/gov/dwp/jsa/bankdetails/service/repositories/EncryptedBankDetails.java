@@ -0,0 +1,31 @@
+package uk.gov.dwp.jsa.bankdetails.service.repositories;
+
+import java.util.UUID;
+
+/**
+ * A stored bank details row with its payload still encrypted, for reads that decrypt many rows together.
+ */
+public final class EncryptedBankDetails {
+
+    private final UUID id;
+    private final UUID claimId;
+    private final String payload;
+
+    public EncryptedBankDetails(final UUID id, final UUID claimId, final String payload) {
+        this.id = id;
+        this.claimId = claimId;
+        this.payload = payload;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getClaimId() {
+        return claimId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+}
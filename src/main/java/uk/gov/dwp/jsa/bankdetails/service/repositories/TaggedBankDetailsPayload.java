@@ -0,0 +1,33 @@
+package uk.gov.dwp.jsa.bankdetails.service.repositories;
+
+import uk.gov.dwp.jsa.bankdetails.service.encryption.LazyBankDetailsPayload;
+
+/**
+ * A stored payload, still encrypted, with the hash and version of the row it was read from.
+ */
+public final class TaggedBankDetailsPayload implements BankDetailsTag {
+
+    private final LazyBankDetailsPayload payload;
+    private final String hash;
+    private final Long version;
+
+    public TaggedBankDetailsPayload(final LazyBankDetailsPayload payload, final String hash, final Long version) {
+        this.payload = payload;
+        this.hash = hash;
+        this.version = version;
+    }
+
+    public LazyBankDetailsPayload getPayload() {
+        return payload;
+    }
+
+    @Override
+    public String getHash() {
+        return hash;
+    }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,220 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsResponse;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, time-limited read-through cache of bank details, keyed by bank details id and by claim id. Each entry
+ * keeps the hash and version of the row it was loaded from, so it is always served with its own entity tag.
+ * When {@code encrypted} is set, entries are held AES-GCM encrypted under a key that is generated at
+ * start-up and never leaves the process, so the cache does not keep decrypted bank details on the heap.
+ * <p>
+ * A row loaded before an eviction is not cached after it. Evictions bump a generation per id, striped to bound
+ * memory, and a count of all evictions; a load is only cached if the generation it started under is unchanged.
+ * Lookups by claim id do not know the id until the row is loaded, so they check the count instead.
+ */
+@Component
+public class BankDetailsCache {
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int KEY_BITS = 256;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final boolean enabled;
+    private final boolean encrypted;
+    private final ObjectMapper mapper;
+    private final Cache<UUID, Entry> byId;
+    private final Cache<UUID, UUID> idByClaimId;
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public BankDetailsCache(@Value("${app.cache.bank-details.enabled:false}") final boolean enabled,
+                            @Value("${app.cache.bank-details.maximum-size:10000}") final long maximumSize,
+                            @Value("${app.cache.bank-details.time-to-live:PT5M}") final Duration timeToLive,
+                            @Value("${app.cache.bank-details.encrypted:true}") final boolean encrypted,
+                            final ObjectMapper mapper,
+                            final MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.encrypted = encrypted;
+        this.mapper = mapper;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.idByClaimId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.key = encrypted ? generateKey() : null;
+        if (enabled) {
+            CaffeineCacheMetrics.monitor(meterRegistry, byId, "bankDetailsById");
+            CaffeineCacheMetrics.monitor(meterRegistry, idByClaimId, "bankDetailsIdByClaimId");
+        }
+    }
+
+    /**
+     * @return a cache that always delegates to the loader, for callers that do not want caching
+     */
+    public static BankDetailsCache disabled() {
+        return new BankDetailsCache(false, 0, Duration.ZERO, false, null, null);
+    }
+
+    /**
+     * @return whether entries are kept, rather than every read going to the loader
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<TaggedBankDetails> getById(final UUID id, final Supplier<Optional<BankDetails>> loader) {
+        if (!enabled) {
+            return loader.get().map(TaggedBankDetails::of);
+        }
+        final long generation = generations.get(stripe(id));
+        final Entry entry = byId.getIfPresent(id);
+        if (entry != null) {
+            return Optional.of(unseal(id, entry));
+        }
+        return loader.get().map(loaded -> put(loaded, () -> generations.get(stripe(loaded.getId())) == generation));
+    }
+
+    public Optional<TaggedBankDetails> getByClaimId(final UUID claimId,
+                                                    final Supplier<Optional<BankDetails>> loader) {
+        if (!enabled) {
+            return loader.get().map(TaggedBankDetails::of);
+        }
+        final long evicted = evictions.get();
+        final UUID id = idByClaimId.getIfPresent(claimId);
+        final Entry entry = id == null ? null : byId.getIfPresent(id);
+        if (entry != null) {
+            return Optional.of(unseal(id, entry));
+        }
+        return loader.get().map(loaded -> put(loaded, () -> evictions.get() == evicted));
+    }
+
+    public void evict(final UUID id) {
+        if (!enabled) {
+            return;
+        }
+        generations.incrementAndGet(stripe(id));
+        evictions.incrementAndGet();
+        final Entry entry = byId.asMap().remove(id);
+        if (entry != null && entry.claimId != null) {
+            idByClaimId.invalidate(entry.claimId);
+        }
+    }
+
+    /**
+     * Caches a loaded row unless it was evicted while loading. The check runs inside {@code compute}, which an
+     * eviction's remove waits for, so a row is either not cached or cached and then evicted.
+     */
+    private TaggedBankDetails put(final BankDetails bankDetails, final BooleanSupplier notEvicted) {
+        final TaggedBankDetails tagged = TaggedBankDetails.of(bankDetails);
+        final Entry entry = seal(bankDetails, tagged.getBankDetails());
+        byId.asMap().compute(bankDetails.getId(), (id, cached) -> notEvicted.getAsBoolean() ? entry : cached);
+        if (bankDetails.getClaimId() != null) {
+            idByClaimId.put(bankDetails.getClaimId(), bankDetails.getId());
+        }
+        return tagged;
+    }
+
+    private Entry seal(final BankDetails bankDetails, final BankDetailsResponse response) {
+        if (!encrypted) {
+            return new Entry(bankDetails, response);
+        }
+        try {
+            final byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            final Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            final byte[] cipherText = cipher.doFinal(mapper.writeValueAsBytes(bankDetails.getBankDetailsJson()));
+            final byte[] sealed = ByteBuffer.allocate(IV_BYTES + cipherText.length).put(iv).put(cipherText).array();
+            return new Entry(bankDetails, sealed);
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Could not seal cached bank details", e);
+        }
+    }
+
+    private TaggedBankDetails unseal(final UUID id, final Entry entry) {
+        return new TaggedBankDetails(unsealPayload(id, entry), entry.hash, entry.version);
+    }
+
+    private BankDetailsResponse unsealPayload(final UUID id, final Entry entry) {
+        if (!encrypted) {
+            return (BankDetailsResponse) entry.payload;
+        }
+        try {
+            final byte[] sealed = (byte[]) entry.payload;
+            final Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, sealed, 0, IV_BYTES));
+            final byte[] json = cipher.doFinal(sealed, IV_BYTES, sealed.length - IV_BYTES);
+            final BankDetailsRequest request = mapper.readValue(json, BankDetailsRequest.class);
+            return new BankDetailsResponse(new BankDetails(id, request, entry.serviceVersion));
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Could not unseal cached bank details", e);
+        }
+    }
+
+    private static int stripe(final UUID id) {
+        return (id.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private static SecretKey generateKey() {
+        try {
+            final KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(KEY_BITS);
+            return generator.generateKey();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("AES is not available", e);
+        }
+    }
+
+    private static final class Entry {
+        private final UUID claimId;
+        private final String serviceVersion;
+        private final String hash;
+        private final Long version;
+        private final Object payload;
+
+        private Entry(final BankDetails bankDetails, final Object payload) {
+            this.claimId = bankDetails.getClaimId();
+            this.serviceVersion = bankDetails.getServiceVersion();
+            this.hash = bankDetails.getHash();
+            this.version = bankDetails.getVersion();
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsChange;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsChangePage;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Incremental feed of bank details changes, paged with a keyset cursor on (updatedTimestamp, id).
+ * <p>
+ * Changes younger than the settle time are held back: a transaction that started earlier can still commit a row
+ * with an older timestamp, and serving the newest rows straight away would move cursors past it. Deletions are
+ * not part of the feed.
+ */
+@Service
+public class BankDetailsChangeFeedService {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final BankDetailsRepository repository;
+    private final Duration settleTime;
+    private final Clock clock;
+
+    @Autowired
+    public BankDetailsChangeFeedService(final BankDetailsRepository repository,
+                                        final @Value("${app.change-feed.settle-time:PT5S}") Duration settleTime) {
+        this(repository, settleTime, Clock.systemDefaultZone());
+    }
+
+    BankDetailsChangeFeedService(final BankDetailsRepository repository,
+                                 final Duration settleTime,
+                                 final Clock clock) {
+        this.repository = repository;
+        this.settleTime = settleTime;
+        this.clock = clock;
+    }
+
+    /**
+     * @param cursor the cursor returned with the previous page, or {@code null} to start from the oldest change
+     * @param limit  the maximum number of changes to return, capped at {@value #MAX_PAGE_SIZE}
+     * @return the changes after the cursor and the cursor for the next page
+     */
+    public BankDetailsChangePage getChanges(final String cursor, final int limit) {
+        final PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        final LocalDateTime before = LocalDateTime.now(clock).minus(settleTime);
+        final List<BankDetailsChange> changes;
+        if (cursor == null) {
+            changes = repository.findChanges(before, page);
+        } else {
+            final ChangeFeedCursor after = ChangeFeedCursor.decode(cursor);
+            changes = repository.findChangesAfter(after.getUpdatedTimestamp(), after.getId(), before, page);
+        }
+        if (changes.isEmpty()) {
+            return new BankDetailsChangePage(changes, cursor);
+        }
+        final BankDetailsChange last = changes.get(changes.size() - 1);
+        return new BankDetailsChangePage(
+                changes, new ChangeFeedCursor(last.getUpdatedTimestamp(), last.getId()).encode());
+    }
+}
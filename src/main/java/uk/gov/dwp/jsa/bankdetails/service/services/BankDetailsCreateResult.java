@@ -0,0 +1,77 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Outcome of an idempotent create: the bank details id and whether they were created by this request. For bank
+ * details that already existed, also the hash and idempotency key they were created with.
+ */
+public final class BankDetailsCreateResult {
+
+    private final UUID id;
+    private final boolean created;
+    private final String hash;
+    private final String idempotencyKey;
+
+    private BankDetailsCreateResult(final UUID id,
+                                    final boolean created,
+                                    final String hash,
+                                    final String idempotencyKey) {
+        this.id = id;
+        this.created = created;
+        this.hash = hash;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public static BankDetailsCreateResult created(final UUID id) {
+        return new BankDetailsCreateResult(id, true, null, null);
+    }
+
+    public static BankDetailsCreateResult existing(final UUID id, final String hash, final String idempotencyKey) {
+        return new BankDetailsCreateResult(id, false, hash, idempotencyKey);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+
+    /**
+     * @return the hash of the existing bank details, or null if they were created by this request
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * @return the idempotency key the existing bank details were created with, or null if they were created by this
+     * request or without a key
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final BankDetailsCreateResult that = (BankDetailsCreateResult) o;
+        return created == that.created
+                && Objects.equals(id, that.id)
+                && Objects.equals(hash, that.hash)
+                && Objects.equals(idempotencyKey, that.idempotencyKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, created, hash, idempotencyKey);
+    }
+}
@@ -0,0 +1,90 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsExportLine;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsRepository;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the bank details of a time window as newline-delimited JSON. Rows are read through a forward-only
+ * cursor, decrypted, written and detached one at a time, so memory does not grow with the size of the window.
+ */
+@Service
+public class BankDetailsExportService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BankDetailsExportService.class);
+    private static final int LINE_SEPARATOR = '\n';
+
+    /**
+     * The timestamp an export window applies to.
+     */
+    public enum Timestamp {
+        CREATED,
+        UPDATED
+    }
+
+    private final BankDetailsRepository repository;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+
+    @Autowired
+    public BankDetailsExportService(final BankDetailsRepository repository,
+                                    final EntityManager entityManager,
+                                    final ObjectMapper mapper) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.writer = mapper.writerFor(BankDetailsExportLine.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * @param timestamp the timestamp the window applies to
+     * @param from      the start of the window, inclusive
+     * @param to        the end of the window, exclusive
+     * @param out       where the lines are written, left open
+     * @return the number of lines written
+     * @throws IOException when writing to {@code out} fails, typically because the client went away
+     */
+    @Transactional(readOnly = true)
+    public long export(final Timestamp timestamp,
+                       final LocalDateTime from,
+                       final LocalDateTime to,
+                       final OutputStream out) throws IOException {
+        long lines = 0;
+        try (Stream<BankDetails> rows = streamFor(timestamp, from, to)) {
+            final Iterator<BankDetails> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                final BankDetails bankDetails = iterator.next();
+                writer.writeValue(out, new BankDetailsExportLine(bankDetails));
+                out.write(LINE_SEPARATOR);
+                entityManager.detach(bankDetails);
+                lines++;
+            }
+        }
+        LOGGER.debug("Exported {} bank details {} in [{}, {})", lines, timestamp, from, to);
+        return lines;
+    }
+
+    private Stream<BankDetails> streamFor(final Timestamp timestamp,
+                                          final LocalDateTime from,
+                                          final LocalDateTime to) {
+        return timestamp == Timestamp.CREATED
+                ? repository.streamByCreatedTimestamp(from, to)
+                : repository.streamByUpdatedTimestamp(from, to);
+    }
+}
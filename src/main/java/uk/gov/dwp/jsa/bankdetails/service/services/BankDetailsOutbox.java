@@ -0,0 +1,52 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetailsOutboxEvent;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsOutboxRepository;
+
+import java.util.UUID;
+
+/**
+ * Records bank details changes in the outbox table. Callers must be inside the transaction that makes the change,
+ * so the event is stored if and only if the change is. Does nothing unless {@code app.outbox.enabled} is set.
+ */
+@Component
+public class BankDetailsOutbox {
+
+    private final BankDetailsOutboxRepository repository;
+    private final boolean enabled;
+
+    @Autowired
+    public BankDetailsOutbox(final BankDetailsOutboxRepository repository,
+                             final @Value("${app.outbox.enabled:false}") boolean enabled) {
+        this.repository = repository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return an outbox that records nothing
+     */
+    public static BankDetailsOutbox disabled() {
+        return new BankDetailsOutbox(null, false);
+    }
+
+    public void recordCreated(final UUID id, final UUID claimId, final String hash) {
+        if (enabled) {
+            repository.save(new BankDetailsOutboxEvent(BankDetailsOutboxEvent.CREATED, id, claimId, hash));
+        }
+    }
+
+    public void recordUpdated(final UUID id) {
+        if (enabled) {
+            repository.recordUpdated(id);
+        }
+    }
+
+    public void recordDeleted(final UUID id) {
+        if (enabled) {
+            repository.recordDeleted(id);
+        }
+    }
+}
@@ -1,38 +1,101 @@
 package uk.gov.dwp.jsa.bankdetails.service.services;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.commons.codec.digest.DigestUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 import org.springframework.web.client.HttpClientErrorException;
 import uk.gov.dwp.jsa.adaptors.enums.UserType;
+import uk.gov.dwp.jsa.bankdetails.service.datasource.ReadRouting;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.BankDetailsBatchDecryption;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.LazyBankDetailsPayload;
 import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsAlreadyExistsException;
 import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsByClaimIdNotFoundException;
 import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsByIdNotFoundException;
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsIdempotencyKeyReusedException;
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsPreconditionFailedException;
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.InvalidFieldSelectionException;
+import uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings;
 import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsBatchItem;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsBatchResult;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsLookupResult;
 import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
 import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsResponse;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsMetadata;
 import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsRepository;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsTag;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.EncryptedBankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.TaggedBankDetailsPayload;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings.CREATE;
+import static uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings.DB;
+import static uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings.DELETE;
+import static uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings.GET;
+import static uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings.HASH;
+import static uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings.TAG;
+import static uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings.UPDATE;
 
 
 @Service
 public class BankDetailsService {
     private static final Logger LOGGER = LoggerFactory.getLogger(BankDetailsService.class);
+    static final int CLAIM_ID_LOOKUP_CHUNK_SIZE = 500;
+    static final int BATCH_SAVE_CHUNK_SIZE = 500;
+    private static final int INSERT_IF_ABSENT_ATTEMPTS = 2;
 
     private final BankDetailsRepository repository;
     private final ObjectMapper mapper;
+    private final TransactionOperations transactionOperations;
+    private final BankDetailsCache cache;
+    private final BankDetailsOutbox outbox;
+    private final ReadRouting readRouting;
+    private final PipelineTimings timings;
+    private final BankDetailsBatchDecryption batchDecryption;
+    private final Counter unmodifiedUpdates;
 
     @Autowired
-    public BankDetailsService(final BankDetailsRepository repository, final ObjectMapper mapper) {
+    public BankDetailsService(final BankDetailsRepository repository,
+                              final ObjectMapper mapper,
+                              final TransactionOperations transactionOperations,
+                              final BankDetailsCache cache,
+                              final BankDetailsOutbox outbox,
+                              final ReadRouting readRouting,
+                              final PipelineTimings timings,
+                              final BankDetailsBatchDecryption batchDecryption,
+                              final MeterRegistry meterRegistry) {
         this.repository = repository;
         this.mapper = mapper;
+        this.transactionOperations = transactionOperations;
+        this.cache = cache;
+        this.outbox = outbox;
+        this.readRouting = readRouting;
+        this.timings = timings;
+        this.batchDecryption = batchDecryption;
+        this.unmodifiedUpdates = Counter.builder("bank_details.update.unmodified")
+                .description("Updates skipped because the submitted bank details were unchanged")
+                .register(meterRegistry);
     }
 
 
@@ -41,73 +104,416 @@ public class BankDetailsService {
         BankDetails createdBankDetails;
 
         try {
-            createdBankDetails = repository.save(bankDetails);
+            createdBankDetails = timings.record(CREATE, DB, () -> transactionOperations.execute(status -> {
+                final BankDetails saved = repository.save(bankDetails);
+                recordCreated(saved);
+                return saved;
+            }));
         } catch (DataIntegrityViolationException e) {
             LOGGER.error("Bank details already exist for claimId: {}", claimId, e);
             throw new BankDetailsAlreadyExistsException();
         }
+        readRouting.recordWrite();
 
         return createdBankDetails.getId();
 
     }
 
-    public BankDetailsResponse getBankDetailsById(final UUID id) {
-        return repository.findById(id)
-                .map(BankDetailsResponse::new)
+    /**
+     * Creates the bank details unless the claim already has some. A repeat of the request that created them, with
+     * the same idempotency key and bank details, gets the existing id back. Unlike {@link #save}, a duplicate is not
+     * detected by a failed insert.
+     *
+     * @param claimId            the claim id
+     * @param idempotencyKey     the idempotency key of the request
+     * @param bankDetailsRequest the bank details
+     * @return the id, and whether the bank details were created by this call
+     * @throws BankDetailsAlreadyExistsException        if the claim has bank details created under another key
+     * @throws BankDetailsIdempotencyKeyReusedException if they were created under this key with other bank details
+     */
+    public BankDetailsCreateResult saveIfAbsent(final UUID claimId,
+                                                final String idempotencyKey,
+                                                final BankDetailsRequest bankDetailsRequest) {
+        final BankDetails bankDetails = createBankDetailsEntityWith(claimId, bankDetailsRequest);
+        for (int attempt = 0; attempt < INSERT_IF_ABSENT_ATTEMPTS; attempt++) {
+            final Optional<BankDetailsCreateResult> result = timings.record(CREATE, DB, () ->
+                    transactionOperations.execute(status -> {
+                        final Optional<BankDetailsCreateResult> inserted =
+                                repository.insertIfAbsent(bankDetails, idempotencyKey);
+                        inserted.filter(BankDetailsCreateResult::isCreated).ifPresent(created ->
+                                outbox.recordCreated(created.getId(), claimId, bankDetails.getHash()));
+                        return inserted;
+                    }));
+            if (result.isPresent()) {
+                if (result.get().isCreated()) {
+                    readRouting.recordWrite();
+                } else {
+                    checkRepeated(result.get(), idempotencyKey, bankDetails.getHash());
+                }
+                return result.get();
+            }
+            LOGGER.debug("Concurrent create for claimId: {} not yet visible, retrying", claimId);
+        }
+        throw new BankDetailsAlreadyExistsException();
+    }
+
+    private static void checkRepeated(final BankDetailsCreateResult existing,
+                                      final String idempotencyKey,
+                                      final String hash) {
+        if (!idempotencyKey.equals(existing.getIdempotencyKey())) {
+            throw new BankDetailsAlreadyExistsException();
+        }
+        if (!hash.equals(existing.getHash())) {
+            throw new BankDetailsIdempotencyKeyReusedException();
+        }
+    }
+
+    /**
+     * Creates the bank details of many claims. Each chunk of {@value #BATCH_SAVE_CHUNK_SIZE} items is checked
+     * for existing claims with a single query and then inserted in one transaction, so Hibernate can send the
+     * inserts as JDBC batches. Claims that already have bank details, or appear twice in the batch, are reported
+     * as conflicts instead of failing the whole batch.
+     *
+     * @param items the claim ids and bank details to create
+     * @return a result per item, in request order
+     */
+    public List<BankDetailsBatchResult> saveAll(final List<BankDetailsBatchItem> items) {
+        final BankDetailsBatchResult[] results = new BankDetailsBatchResult[items.size()];
+        for (int from = 0; from < items.size(); from += BATCH_SAVE_CHUNK_SIZE) {
+            saveChunk(items, from, Math.min(from + BATCH_SAVE_CHUNK_SIZE, items.size()), results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void saveChunk(final List<BankDetailsBatchItem> items,
+                           final int from,
+                           final int to,
+                           final BankDetailsBatchResult[] results) {
+        final List<UUID> claimIds = new ArrayList<>(to - from);
+        items.subList(from, to).forEach(item -> claimIds.add(item.getClaimId()));
+        final Set<UUID> takenClaimIds = new HashSet<>(
+                timings.record(CREATE, DB, () -> repository.findExistingClaimIds(claimIds)));
+
+        final List<Integer> positions = new ArrayList<>();
+        final List<BankDetails> entities = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            final BankDetailsBatchItem item = items.get(i);
+            if (takenClaimIds.add(item.getClaimId())) {
+                positions.add(i);
+                entities.add(createBankDetailsEntityWith(item.getClaimId(), item.getBankDetails()));
+            } else {
+                results[i] = BankDetailsBatchResult.conflict(item.getClaimId());
+            }
+        }
+
+        List<UUID> ids;
+        try {
+            ids = timings.record(CREATE, DB, () -> transactionOperations.execute(status -> {
+                final List<UUID> savedIds = new ArrayList<>(entities.size());
+                repository.saveAll(entities).forEach(saved -> {
+                    recordCreated(saved);
+                    savedIds.add(saved.getId());
+                });
+                return savedIds;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            LOGGER.warn("Batch insert of {} bank details conflicted, falling back to single inserts", entities.size());
+            ids = saveOneByOne(entities);
+        }
+        if (!entities.isEmpty()) {
+            readRouting.recordWrite();
+        }
+
+        for (int i = 0; i < positions.size(); i++) {
+            final UUID claimId = items.get(positions.get(i)).getClaimId();
+            final UUID id = ids.get(i);
+            results[positions.get(i)] = id == null
+                    ? BankDetailsBatchResult.conflict(claimId)
+                    : BankDetailsBatchResult.created(claimId, id);
+        }
+    }
+
+    /**
+     * Inserts each entity in its own transaction after a failed batch. The failed batch has already given the
+     * entities an id and an initial version, so both are cleared first; otherwise Spring Data would take the
+     * entities for existing rows and merge them instead of persisting them.
+     *
+     * @return the id of each created entity, or {@code null} where the claim already has bank details
+     */
+    private List<UUID> saveOneByOne(final List<BankDetails> entities) {
+        final List<UUID> ids = new ArrayList<>(entities.size());
+        for (final BankDetails entity : entities) {
+            entity.setId(null);
+            entity.setVersion(null);
+            try {
+                ids.add(transactionOperations.execute(status -> {
+                    final BankDetails saved = repository.save(entity);
+                    recordCreated(saved);
+                    return saved.getId();
+                }));
+            } catch (DataIntegrityViolationException e) {
+                LOGGER.warn("Bank details already exist for claimId: {}", entity.getClaimId());
+                ids.add(null);
+            }
+        }
+        return ids;
+    }
+
+    private void recordCreated(final BankDetails bankDetails) {
+        outbox.recordCreated(bankDetails.getId(), bankDetails.getClaimId(), bankDetails.getHash());
+    }
+
+    /**
+     * @param id the bank details id
+     * @return the stored hash and version, read without loading or decrypting the bank details
+     */
+    public BankDetailsTag getTagById(final UUID id) {
+        return readRouting.fromReplica(() -> findTagById(id));
+    }
+
+    private BankDetailsTag findTagById(final UUID id) {
+        return timings.record(GET, TAG, () -> repository.findTagById(id))
                 .orElseThrow(BankDetailsByIdNotFoundException::new);
     }
 
-    public BankDetailsResponse getBankDetailsByClaimId(final UUID bankDetailsId) {
-        return repository.findByClaimId(bankDetailsId.toString())
-                .map(BankDetailsResponse::new)
+    /**
+     * @param claimId the claim id
+     * @return the stored hash and version, read without loading or decrypting the bank details
+     */
+    public BankDetailsTag getTagByClaimId(final UUID claimId) {
+        return readRouting.fromReplica(() -> timings.record(GET, TAG, () -> repository.findTagByClaimId(claimId)))
                 .orElseThrow(BankDetailsByClaimIdNotFoundException::new);
     }
 
-    public UUID update(final UUID id, final BankDetailsRequest bankDetailsRequest) {
-        final BankDetails bankDetails = repository.findById(id).orElseThrow(BankDetailsByIdNotFoundException::new);
-        updateBankDetailsEntityWith(bankDetails, bankDetailsRequest);
+    /**
+     * @param claimId the claim id
+     * @return everything stored about the bank details except the bank details themselves, read without loading
+     * or decrypting them
+     */
+    public BankDetailsMetadata getMetadataByClaimId(final UUID claimId) {
+        return readRouting.fromReplica(() -> timings.record(GET, TAG, () -> repository.findMetadataByClaimId(claimId)))
+                .orElseThrow(BankDetailsByClaimIdNotFoundException::new);
+    }
+
+    /**
+     * @param id the bank details id
+     * @return the bank details, with the hash and version of the row they were read from
+     */
+    public TaggedBankDetails getBankDetailsById(final UUID id) {
+        return cache.getById(id, () -> readForCache(() -> timings.record(GET, DB, () -> repository.findById(id))))
+                .orElseThrow(BankDetailsByIdNotFoundException::new);
+    }
+
+    /**
+     * @param bankDetailsId the claim id
+     * @return the bank details, with the hash and version of the row they were read from
+     */
+    public TaggedBankDetails getBankDetailsByClaimId(final UUID bankDetailsId) {
+        return cache.getByClaimId(bankDetailsId, () -> readForCache(
+                () -> timings.record(GET, DB, () -> repository.findByClaimId(bankDetailsId))))
+                .orElseThrow(BankDetailsByClaimIdNotFoundException::new);
+    }
+
+    /**
+     * Reads what the cache will keep from the primary. An entry loaded from a replica that has not yet applied the
+     * write which evicted it would otherwise be served for the whole time-to-live. Without the cache the read may
+     * go to the replica.
+     */
+    private <T> T readForCache(final Supplier<T> read) {
+        return cache.isEnabled() ? read.get() : readRouting.fromReplica(read);
+    }
+
+    /**
+     * Reads only the selected fields, decrypting just the secured fields among them. Bypasses the cache.
+     *
+     * @param id     the bank details id
+     * @param fields the fields to read, each one of {@link LazyBankDetailsPayload#FIELDS}
+     * @return the bank details with only the selected fields set, with the hash and version of their row
+     * @throws InvalidFieldSelectionException when a field is unknown
+     */
+    public TaggedBankDetails getBankDetailsById(final UUID id, final Set<String> fields) {
+        validateFieldSelection(fields);
+        return select(readRouting.fromReplica(
+                () -> timings.record(GET, DB, () -> repository.findPayloadById(id)))
+                .orElseThrow(BankDetailsByIdNotFoundException::new), fields);
+    }
+
+    /**
+     * Reads only the selected fields, decrypting just the secured fields among them. Bypasses the cache.
+     *
+     * @param claimId the claim id
+     * @param fields  the fields to read, each one of {@link LazyBankDetailsPayload#FIELDS}
+     * @return the bank details with only the selected fields set, with the hash and version of their row
+     * @throws InvalidFieldSelectionException when a field is unknown
+     */
+    public TaggedBankDetails getBankDetailsByClaimId(final UUID claimId, final Set<String> fields) {
+        validateFieldSelection(fields);
+        return select(readRouting.fromReplica(
+                () -> timings.record(GET, DB, () -> repository.findPayloadByClaimId(claimId)))
+                .orElseThrow(BankDetailsByClaimIdNotFoundException::new), fields);
+    }
+
+    private static TaggedBankDetails select(final TaggedBankDetailsPayload stored, final Set<String> fields) {
+        final LazyBankDetailsPayload payload = stored.getPayload();
+        return new TaggedBankDetails(new BankDetailsResponse(payload.getId(), payload.select(fields)),
+                stored.getHash(), stored.getVersion());
+    }
+
+    private static void validateFieldSelection(final Set<String> fields) {
+        if (fields.isEmpty() || !LazyBankDetailsPayload.FIELDS.containsAll(fields)) {
+            throw new InvalidFieldSelectionException();
+        }
+    }
+
+    /**
+     * Looks up the bank details of many claims, querying the repository in chunks of
+     * {@value #CLAIM_ID_LOOKUP_CHUNK_SIZE} claim ids rather than once per claim. The rows of a chunk are read
+     * still encrypted and decrypted together. Like the single claim reads, the queries may be served by the replica
+     * and are timed as the {@code db} stage of {@code get}.
+     *
+     * @param claimIds the claim ids to look up, duplicates are ignored
+     * @return a result per distinct claim id, in request order
+     */
+    public Map<UUID, BankDetailsLookupResult> getBankDetailsByClaimIds(final List<UUID> claimIds) {
+        final Map<UUID, BankDetailsLookupResult> results = new LinkedHashMap<>();
+        final List<UUID> distinctClaimIds = new ArrayList<>(new LinkedHashSet<>(claimIds));
+        for (int from = 0; from < distinctClaimIds.size(); from += CLAIM_ID_LOOKUP_CHUNK_SIZE) {
+            final List<UUID> chunk = distinctClaimIds.subList(
+                    from, Math.min(from + CLAIM_ID_LOOKUP_CHUNK_SIZE, distinctClaimIds.size()));
+            final List<EncryptedBankDetails> rows = readRouting.fromReplica(
+                    () -> timings.record(GET, DB, () -> repository.findEncryptedByClaimIdIn(chunk)));
+            final List<BankDetailsRequest> decrypted = batchDecryption.decryptAll(
+                    rows.stream().map(EncryptedBankDetails::getPayload).collect(Collectors.toList()));
+            final Map<UUID, BankDetailsResponse> found = new HashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                found.put(rows.get(i).getClaimId(), new BankDetailsResponse(rows.get(i).getId(), decrypted.get(i)));
+            }
+            chunk.forEach(claimId -> results.put(claimId, toLookupResult(found.get(claimId))));
+        }
+        return results;
+    }
+
+    private static BankDetailsLookupResult toLookupResult(final BankDetailsResponse bankDetails) {
+        if (bankDetails == null) {
+            return BankDetailsLookupResult.notFound();
+        }
+        return BankDetailsLookupResult.found(bankDetails);
+    }
+
+    public BankDetailsUpdateResult update(final UUID id, final BankDetailsRequest bankDetailsRequest) {
+        return update(id, bankDetailsRequest, null);
+    }
+
+    /**
+     * Updates the bank details with a single conditional statement. The stored hash is read first, and nothing is
+     * encrypted or written when the submitted request hashes to it. The statement keeps the hash condition in case
+     * of a concurrent write, and when an expected version is given the write only happens while the stored
+     * bank details are still at that version.
+     *
+     * @param id                 the bank details id
+     * @param bankDetailsRequest the new bank details
+     * @param expectedVersion    the version the caller last read, or {@code null} to update unconditionally
+     * @return the id, whether the bank details were written, and the hash and version stored afterwards, read back
+     * in the transaction of the update
+     * @throws BankDetailsPreconditionFailedException when the stored version differs from the expected one
+     */
+    public BankDetailsUpdateResult update(final UUID id,
+                                          final BankDetailsRequest bankDetailsRequest,
+                                          final Long expectedVersion) {
+        final String hash = hashOf(UPDATE, bankDetailsRequest);
+        final BankDetailsTag current = checkUpdatable(id, expectedVersion);
+        if (hash.equals(current.getHash())) {
+            return unmodified(id, current);
+        }
+        final String source = UserType.AGENT.toString();
+        final BankDetailsTag updated;
 
         try {
-            repository.save(bankDetails);
-        } catch (DataIntegrityViolationException e) {
-            LOGGER.error("Bank details already exist for id: {}", id, e);
-            throw new BankDetailsAlreadyExistsException();
+            updated = timings.record(UPDATE, DB, () -> transactionOperations.execute(status -> {
+                final int rows = expectedVersion == null
+                        ? repository.updateBankDetails(
+                                id, bankDetailsRequest, hash, source, bankDetailsRequest.getServiceVersion())
+                        : repository.updateBankDetailsIfVersion(id, expectedVersion,
+                                bankDetailsRequest, hash, source, bankDetailsRequest.getServiceVersion());
+                if (rows == 0) {
+                    return null;
+                }
+                outbox.recordUpdated(id);
+                return repository.findTagById(id).orElseThrow(BankDetailsByIdNotFoundException::new);
+            }));
+        } finally {
+            cache.evict(id);
         }
 
-        return bankDetails.getId();
+        if (updated != null) {
+            readRouting.recordWrite();
+            return BankDetailsUpdateResult.modified(id, updated);
+        }
+        return unmodified(id, checkUpdatable(id, expectedVersion));
+    }
 
+    /**
+     * Reads the stored hash and version from the primary, before the update to skip encrypting and writing
+     * unchanged bank details, and after an update that wrote nothing to tell a concurrent write from a stale one.
+     */
+    private BankDetailsTag checkUpdatable(final UUID id, final Long expectedVersion) {
+        final BankDetailsTag tag = timings.record(UPDATE, TAG, () -> repository.findTagById(id))
+                .orElseThrow(BankDetailsByIdNotFoundException::new);
+        if (expectedVersion != null && !expectedVersion.equals(tag.getVersion())) {
+            LOGGER.debug("Stale update for id: {}, expected version {} but found {}",
+                    id, expectedVersion, tag.getVersion());
+            throw new BankDetailsPreconditionFailedException();
+        }
+        return tag;
     }
 
-    private void updateBankDetailsEntityWith(final BankDetails bankDetails,
-                                             final BankDetailsRequest bankDetailsRequest) {
-        bankDetails.setBankDetailsJson(bankDetailsRequest);
-        bankDetails.setHash(DigestUtils.sha256Hex(createJsonFor(bankDetailsRequest)));
-        bankDetails.setSource(UserType.AGENT.toString());
-        bankDetails.setServiceVersion(bankDetailsRequest.getServiceVersion());
+    private BankDetailsUpdateResult unmodified(final UUID id, final BankDetailsTag current) {
+        LOGGER.debug("Bank details unchanged for id: {}", id);
+        unmodifiedUpdates.increment();
+        return BankDetailsUpdateResult.notModified(id, current);
     }
 
     private BankDetails createBankDetailsEntityWith(final UUID claimId, final BankDetailsRequest bankDetailsRequest) {
         return new BankDetails(
-                claimId.toString(),
+                claimId,
                 bankDetailsRequest,
-                DigestUtils.sha256Hex(createJsonFor(bankDetailsRequest)),
+                hashOf(CREATE, bankDetailsRequest),
                 UserType.CITIZEN.toString(),
                 bankDetailsRequest.getServiceVersion()
         );
     }
 
-    private String createJsonFor(final BankDetailsRequest bankDetailsRequest) {
-        String requestJson;
-        try {
-            requestJson = mapper.writeValueAsString(bankDetailsRequest);
-        } catch (JsonProcessingException e) {
-            LOGGER.error("Error creating JSON for claimantId: {}", bankDetailsRequest.getClaimantId(), e);
-            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
-        }
-        return requestJson;
+    private String hashOf(final String operation, final BankDetailsRequest bankDetailsRequest) {
+        return timings.record(operation, HASH, () -> {
+            try {
+                return JsonDigest.sha256Hex(mapper, bankDetailsRequest);
+            } catch (IOException e) {
+                LOGGER.error("Error creating JSON for claimantId: {}", bankDetailsRequest.getClaimantId(), e);
+                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+            }
+        });
     }
 
+    /**
+     * Deletes the bank details with a single statement, neither loading nor decrypting them first. The outbox
+     * event is recorded from the row before it is deleted, in the same transaction.
+     *
+     * @param id the bank details id
+     * @throws BankDetailsByIdNotFoundException when there are no bank details for the id
+     */
     public void delete(final UUID id) {
-        repository.deleteById(id);
+        final Integer deletedRows;
+        try {
+            deletedRows = timings.record(DELETE, DB, () -> transactionOperations.execute(status -> {
+                outbox.recordDeleted(id);
+                return repository.deleteBankDetailsById(id);
+            }));
+        } finally {
+            cache.evict(id);
+        }
+        if (deletedRows == 0) {
+            throw new BankDetailsByIdNotFoundException();
+        }
+        readRouting.recordWrite();
     }
 }
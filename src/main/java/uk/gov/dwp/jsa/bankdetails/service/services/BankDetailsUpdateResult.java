@@ -0,0 +1,69 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsTag;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Outcome of an update: the bank details id, whether anything was written, and the hash and version stored
+ * afterwards.
+ */
+public final class BankDetailsUpdateResult implements BankDetailsTag {
+
+    private final UUID id;
+    private final boolean modified;
+    private final String hash;
+    private final Long version;
+
+    private BankDetailsUpdateResult(final UUID id, final boolean modified, final BankDetailsTag tag) {
+        this.id = id;
+        this.modified = modified;
+        this.hash = tag.getHash();
+        this.version = tag.getVersion();
+    }
+
+    public static BankDetailsUpdateResult modified(final UUID id, final BankDetailsTag tag) {
+        return new BankDetailsUpdateResult(id, true, tag);
+    }
+
+    public static BankDetailsUpdateResult notModified(final UUID id, final BankDetailsTag tag) {
+        return new BankDetailsUpdateResult(id, false, tag);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    @Override
+    public String getHash() {
+        return hash;
+    }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final BankDetailsUpdateResult that = (BankDetailsUpdateResult) o;
+        return modified == that.modified && Objects.equals(id, that.id)
+                && Objects.equals(hash, that.hash) && Objects.equals(version, that.version);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, modified, hash, version);
+    }
+}
@@ -0,0 +1,54 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.InvalidChangeFeedCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the change feed: the (updatedTimestamp, id) of the last change a consumer has seen, passed around
+ * as an opaque URL-safe token.
+ */
+final class ChangeFeedCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime updatedTimestamp;
+    private final UUID id;
+
+    ChangeFeedCursor(final LocalDateTime updatedTimestamp, final UUID id) {
+        this.updatedTimestamp = updatedTimestamp;
+        this.id = id;
+    }
+
+    LocalDateTime getUpdatedTimestamp() {
+        return updatedTimestamp;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    String encode() {
+        final String value = updatedTimestamp + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ChangeFeedCursor decode(final String token) {
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidChangeFeedCursorException();
+            }
+            return new ChangeFeedCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidChangeFeedCursorException();
+        }
+    }
+}
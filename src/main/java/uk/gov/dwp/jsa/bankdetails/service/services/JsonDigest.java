@@ -0,0 +1,50 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+
+/**
+ * Hashes the JSON form of a value while Jackson writes it, without building the JSON as a {@code String} or
+ * buffering its bytes. The UTF-8 bytes fed to the digest are the ones {@code writeValueAsString} would have
+ * produced, so hashes match those stored before.
+ */
+public final class JsonDigest {
+
+    private JsonDigest() {
+    }
+
+    /**
+     * @param mapper the mapper that defines the JSON form
+     * @param value  the value to hash
+     * @return the hex encoded SHA-256 of the value's JSON
+     * @throws IOException when the value cannot be serialised
+     */
+    public static String sha256Hex(final ObjectMapper mapper, final Object value) throws IOException {
+        final MessageDigest digest = DigestUtils.getSha256Digest();
+        mapper.writeValue(new DigestingOutputStream(digest), value);
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    private static final class DigestingOutputStream extends OutputStream {
+        private final MessageDigest digest;
+
+        private DigestingOutputStream(final MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void write(final int b) {
+            digest.update((byte) b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            digest.update(b, off, len);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package uk.gov.dwp.jsa.bankdetails.service.services;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import uk.gov.dwp.jsa.adaptors.http.api.ApiError;
@@ -16,6 +17,7 @@ public class ResponseBuilder<T> {
     private HttpStatus httpStatus;
     private ApiError apiError;
     private List<ApiSuccess<T>> apiSuccessData;
+    private final HttpHeaders headers = new HttpHeaders();
 
     public ResponseBuilder<T> withStatus(final HttpStatus httpStatus) {
         Objects.requireNonNull(httpStatus);
@@ -51,6 +53,13 @@ public class ResponseBuilder<T> {
         return this;
     }
 
+    public ResponseBuilder<T> withHeader(final String name, final String value) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(value);
+        this.headers.set(name, value);
+        return this;
+    }
+
     public ResponseEntity<ApiResponse<T>> build() {
         Objects.requireNonNull(httpStatus);
 
@@ -60,6 +69,7 @@ public class ResponseBuilder<T> {
 
         return ResponseEntity
                 .status(httpStatus)
+                .headers(headers)
                 .body(apiResponse);
 
     }
@@ -0,0 +1,41 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsResponse;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsTag;
+
+/**
+ * Bank details together with the hash and version of the row they were read from, so that an entity tag built
+ * from them always describes the returned body, even when the body comes from the cache or a replica.
+ */
+public final class TaggedBankDetails implements BankDetailsTag {
+
+    private final BankDetailsResponse bankDetails;
+    private final String hash;
+    private final Long version;
+
+    public TaggedBankDetails(final BankDetailsResponse bankDetails, final String hash, final Long version) {
+        this.bankDetails = bankDetails;
+        this.hash = hash;
+        this.version = version;
+    }
+
+    static TaggedBankDetails of(final BankDetails bankDetails) {
+        return new TaggedBankDetails(
+                new BankDetailsResponse(bankDetails), bankDetails.getHash(), bankDetails.getVersion());
+    }
+
+    public BankDetailsResponse getBankDetails() {
+        return bankDetails;
+    }
+
+    @Override
+    public String getHash() {
+        return hash;
+    }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,46 @@
+package uk.gov.dwp.jsa.bankdetails.service.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.BankDetailsRequestJsonEncryption;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypts and decrypts a probe value once the application has started, enabled with
+ * {@code app.startup.warm-up.enabled}. This builds a lazily initialised crypto manager and fetches the first data
+ * key before the application reports itself ready, so the first request does not pay for it. A failure stops
+ * startup, as it would have when the crypto manager was built eagerly.
+ */
+@Component
+@ConditionalOnProperty(name = "app.startup.warm-up.enabled", havingValue = "true")
+public class CryptoWarmUp implements ApplicationRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CryptoWarmUp.class);
+
+    static final String PROBE = "warm-up";
+
+    private final BankDetailsRequestJsonEncryption encryption;
+
+    @Autowired
+    public CryptoWarmUp(final BankDetailsRequestJsonEncryption encryption) {
+        this.encryption = encryption;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        final long start = System.nanoTime();
+        final BankDetailsRequest probe = new BankDetailsRequest();
+        probe.setAccountHolder(PROBE);
+        final BankDetailsRequest decrypted = encryption.decrypt(encryption.encrypt(probe));
+        if (decrypted == null || !PROBE.equals(decrypted.getAccountHolder())) {
+            throw new IllegalStateException("Encryption warm-up did not round trip");
+        }
+        LOGGER.info("Encryption warmed up in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,39 @@
+package uk.gov.dwp.jsa.bankdetails.service.startup;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.target.AbstractLazyCreationTargetSource;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Proxies that create their target on the first call, so an expensive bean can be injected at startup without
+ * being built until it is used.
+ */
+public final class LazyProxies {
+
+    private LazyProxies() {
+    }
+
+    /**
+     * @param type    the class to proxy; it must not be final
+     * @param factory creates the target, called once on the first method call
+     * @param <T>     the type of the target
+     * @return a proxy that delegates to the target
+     */
+    public static <T> T create(final Class<T> type, final Callable<T> factory) {
+        final ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.setTargetSource(new AbstractLazyCreationTargetSource() {
+            @Override
+            public synchronized Class<?> getTargetClass() {
+                return type;
+            }
+
+            @Override
+            protected Object createObject() throws Exception {
+                return factory.call();
+            }
+        });
+        return type.cast(proxyFactory.getProxy());
+    }
+}
@@ -0,0 +1,142 @@
+package uk.gov.dwp.jsa.bankdetails.service.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Startup timeline, logged once the application is ready when {@value #ENABLED_PROPERTY} is set: the time from
+ * JVM start to each phase of startup, and the {@value #SLOWEST_BEANS} beans that took longest to create, not
+ * counting the beans they depend on. Spring Boot 2.3 predates {@code ApplicationStartup}, so the phases come from
+ * the application events and the bean times from a bean post-processor. Added to the application in
+ * {@code Application.main} so that it also sees the events published before the context exists.
+ */
+public class StartupTimeline implements ApplicationListener<ApplicationEvent> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupTimeline.class);
+
+    static final String ENABLED_PROPERTY = "app.startup.timeline.enabled";
+    static final int SLOWEST_BEANS = 10;
+
+    private final long jvmStartMillis;
+    private final LongSupplier clockMillis;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final BeanTimings beanTimings = new BeanTimings();
+    private boolean enabled = true;
+
+    public StartupTimeline() {
+        this(ManagementFactory.getRuntimeMXBean().getStartTime(), System::currentTimeMillis);
+    }
+
+    StartupTimeline(final long jvmStartMillis, final LongSupplier clockMillis) {
+        this.jvmStartMillis = jvmStartMillis;
+        this.clockMillis = clockMillis;
+    }
+
+    @Override
+    public void onApplicationEvent(final ApplicationEvent event) {
+        if (event instanceof ApplicationStartingEvent) {
+            mark("starting");
+        } else if (event instanceof ApplicationEnvironmentPreparedEvent) {
+            enabled = ((ApplicationEnvironmentPreparedEvent) event).getEnvironment()
+                    .getProperty(ENABLED_PROPERTY, Boolean.class, false);
+            mark("environment prepared");
+        } else if (!enabled) {
+            return;
+        } else if (event instanceof ApplicationPreparedEvent) {
+            ((ApplicationPreparedEvent) event).getApplicationContext().getBeanFactory()
+                    .addBeanPostProcessor(beanTimings);
+            mark("context prepared");
+        } else if (event instanceof WebServerInitializedEvent) {
+            mark("web server started");
+        } else if (event instanceof ApplicationStartedEvent) {
+            mark("context refreshed");
+        } else if (event instanceof ApplicationReadyEvent) {
+            mark("ready");
+            LOGGER.info("Startup timeline (ms since JVM start): {}", phases);
+            LOGGER.info("Slowest beans (ms): {}", slowestBeans());
+        }
+    }
+
+    Map<String, Long> getPhases() {
+        return phases;
+    }
+
+    Map<String, Long> slowestBeans() {
+        return beanTimings.ownMillis.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(SLOWEST_BEANS)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    BeanTimings getBeanTimings() {
+        return beanTimings;
+    }
+
+    private void mark(final String phase) {
+        phases.putIfAbsent(phase, clockMillis.getAsLong() - jvmStartMillis);
+    }
+
+    /**
+     * Times each bean from before it is instantiated until after it is initialised, less the time spent creating
+     * the beans it depends on, which are created on the same thread in the meantime.
+     */
+    static final class BeanTimings implements InstantiationAwareBeanPostProcessor {
+
+        private final ThreadLocal<Deque<Creation>> creating = ThreadLocal.withInitial(ArrayDeque::new);
+        private final Map<String, Long> ownMillis = new ConcurrentHashMap<>();
+
+        @Override
+        public Object postProcessBeforeInstantiation(final Class<?> beanClass, final String beanName) {
+            creating.get().push(new Creation(beanName, System.nanoTime()));
+            return null;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+            final Deque<Creation> stack = creating.get();
+            if (stack.isEmpty() || !stack.peek().beanName.equals(beanName)) {
+                return bean;
+            }
+            final Creation creation = stack.pop();
+            final long total = System.nanoTime() - creation.startNanos;
+            if (!stack.isEmpty()) {
+                stack.peek().dependencyNanos += total;
+            }
+            ownMillis.put(beanName, TimeUnit.NANOSECONDS.toMillis(total - creation.dependencyNanos));
+            return bean;
+        }
+
+        Map<String, Long> getOwnMillis() {
+            return ownMillis;
+        }
+    }
+
+    private static final class Creation {
+        private final String beanName;
+        private final long startNanos;
+        private long dependencyNanos;
+
+        private Creation(final String beanName, final long startNanos) {
+            this.beanName = beanName;
+            this.startNanos = startNanos;
+        }
+    }
+}
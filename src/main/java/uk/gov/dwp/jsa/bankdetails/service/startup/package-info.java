@@ -0,0 +1,4 @@
+/**
+ * Startup time: lazy initialisation, warm-up before readiness and the startup timeline.
+ */
+package uk.gov.dwp.jsa.bankdetails.service.startup;
@@ -0,0 +1,4 @@
+-- Optimistic locking version for bank_details, exposed through the ETag and checked against If-Match on PATCH.
+-- Adding a column with a constant default is a metadata-only change on PostgreSQL 11+, so existing rows are not
+-- rewritten.
+ALTER TABLE bank_details ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
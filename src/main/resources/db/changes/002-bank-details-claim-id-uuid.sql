@@ -0,0 +1,45 @@
+-- Moves bank_details.claim_id from text to a native uuid column, claim_id_uuid, with a unique index, without
+-- blocking the service. This is the expand half: the text column stays and a trigger keeps the two in step, so the
+-- previous release, which reads and writes claim_id, and this release, which reads and writes claim_id_uuid, can
+-- serve traffic side by side during the rolling deploy. Run the steps in order before deploying this release; the
+-- contract half is 005, once no pod of the previous release is left. Step 4 needs PostgreSQL 12 or later to set
+-- NOT NULL without a full table scan under an exclusive lock.
+
+-- 1. Add the new column and keep both columns in sync with writes from either release.
+ALTER TABLE bank_details ADD COLUMN IF NOT EXISTS claim_id_uuid uuid;
+
+CREATE OR REPLACE FUNCTION bank_details_sync_claim_id() RETURNS trigger AS $$
+BEGIN
+    IF NEW.claim_id IS NOT NULL AND (TG_OP = 'INSERT' OR NEW.claim_id IS DISTINCT FROM OLD.claim_id) THEN
+        NEW.claim_id_uuid := NEW.claim_id::uuid;
+    ELSIF NEW.claim_id_uuid IS NOT NULL
+            AND (NEW.claim_id IS NULL OR NEW.claim_id_uuid IS DISTINCT FROM OLD.claim_id_uuid) THEN
+        NEW.claim_id := NEW.claim_id_uuid::text;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS bank_details_sync_claim_id ON bank_details;
+CREATE TRIGGER bank_details_sync_claim_id
+    BEFORE INSERT OR UPDATE OF claim_id, claim_id_uuid ON bank_details
+    FOR EACH ROW EXECUTE PROCEDURE bank_details_sync_claim_id();
+
+-- 2. Backfill existing rows in small batches. Repeat until it reports UPDATE 0.
+UPDATE bank_details SET claim_id_uuid = claim_id::uuid
+WHERE id IN (SELECT id FROM bank_details WHERE claim_id_uuid IS NULL AND claim_id IS NOT NULL LIMIT 10000);
+
+-- 3. Build the unique index without locking out writes. CONCURRENTLY cannot run inside a transaction block.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS bank_details_claim_id_uuid_key ON bank_details (claim_id_uuid);
+
+-- 4. Make the new column NOT NULL, like the column it replaces. The check constraint is validated without blocking
+-- writes, and lets SET NOT NULL skip its scan; the constraint is then redundant.
+ALTER TABLE bank_details ADD CONSTRAINT bank_details_claim_id_uuid_not_null CHECK (claim_id_uuid IS NOT NULL) NOT VALID;
+ALTER TABLE bank_details VALIDATE CONSTRAINT bank_details_claim_id_uuid_not_null;
+
+BEGIN;
+ALTER TABLE bank_details ALTER COLUMN claim_id_uuid SET NOT NULL;
+ALTER TABLE bank_details DROP CONSTRAINT bank_details_claim_id_uuid_not_null;
+ALTER TABLE bank_details ADD CONSTRAINT bank_details_claim_id_uuid_unique
+    UNIQUE USING INDEX bank_details_claim_id_uuid_key;
+COMMIT;
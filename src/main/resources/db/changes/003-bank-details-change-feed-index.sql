@@ -0,0 +1,3 @@
+-- Supports the change feed's keyset pagination on (updated_timestamp, id). CONCURRENTLY cannot run inside a
+-- transaction block.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS bank_details_updated_timestamp_id_idx ON bank_details (updated_timestamp, id);
@@ -0,0 +1,15 @@
+-- Outbox of bank details change events, written in the same transaction as the change and drained by the relay
+-- when app.outbox.enabled is set. The sequence increments by the entity's allocation size so ids can be assigned
+-- in memory and the inserts batched.
+CREATE SEQUENCE IF NOT EXISTS bank_details_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS bank_details_outbox (
+    id                BIGINT PRIMARY KEY DEFAULT nextval('bank_details_outbox_id_seq'),
+    event_type        VARCHAR(16) NOT NULL,
+    bank_details_id   uuid NOT NULL,
+    claim_id          uuid NOT NULL,
+    hash              TEXT,
+    created_timestamp TIMESTAMP NOT NULL
+);
+
+ALTER SEQUENCE bank_details_outbox_id_seq OWNED BY bank_details_outbox.id;
@@ -0,0 +1,8 @@
+-- Contract half of 002: drops the text claim_id column and the trigger that kept it in step with claim_id_uuid.
+-- Run only once every pod is on the release that maps claimId to claim_id_uuid, since the previous release still
+-- reads and writes claim_id. Dropping the column is a metadata-only change and also drops its unique index.
+BEGIN;
+DROP TRIGGER IF EXISTS bank_details_sync_claim_id ON bank_details;
+DROP FUNCTION IF EXISTS bank_details_sync_claim_id();
+ALTER TABLE bank_details DROP COLUMN IF EXISTS claim_id;
+COMMIT;
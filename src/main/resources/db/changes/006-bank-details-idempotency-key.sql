@@ -0,0 +1,4 @@
+-- Idempotency-Key of the create that inserted each row, compared with the key of a repeated create for the claim.
+-- Rows created without the header keep a null key. Adding a nullable column is a metadata-only change, so it can be
+-- applied before the deploy; the previous release never reads it.
+ALTER TABLE bank_details ADD COLUMN IF NOT EXISTS idempotency_key TEXT;
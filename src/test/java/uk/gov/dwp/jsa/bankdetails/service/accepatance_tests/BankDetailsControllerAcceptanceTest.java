@@ -9,11 +9,15 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.client.HttpClientErrorException;
 import uk.gov.dwp.jsa.adaptors.http.api.ApiResponse;
 import uk.gov.dwp.jsa.adaptors.http.api.ApiSuccess;
@@ -23,10 +27,17 @@ import uk.gov.dwp.jsa.bankdetails.service.controllers.BankDetailsController;
 import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsAlreadyExistsException;
 import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsByClaimIdNotFoundException;
 import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsByIdNotFoundException;
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsIdempotencyKeyReusedException;
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsPreconditionFailedException;
+import uk.gov.dwp.jsa.bankdetails.service.execution.BlockingCallExecutor;
 import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
 import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
 import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsResponse;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsTag;
+import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsCreateResult;
 import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsService;
+import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsUpdateResult;
+import uk.gov.dwp.jsa.bankdetails.service.services.TaggedBankDetails;
 import uk.gov.dwp.jsa.security.WithMockUser;
 import uk.gov.dwp.jsa.security.roles.Role;
 
@@ -36,13 +47,18 @@ import java.util.UUID;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -70,6 +86,9 @@ public class BankDetailsControllerAcceptanceTest {
 
     private static final BankDetailsResponse SERVICE_BANK_DETAILS_RESPONSE = new BankDetailsResponse(BANK_DETAILS);
 
+    private static final TaggedBankDetails SERVICE_TAGGED_BANK_DETAILS =
+            new TaggedBankDetails(SERVICE_BANK_DETAILS_RESPONSE, "stored-hash", 2L);
+
     private static final ApiSuccess<BankDetailsResponse> BANK_DETAILS_API_SUCCESS_BY_ID = new ApiSuccess<>(VALID_BANKDETAILS_BY_ID_URL, SERVICE_BANK_DETAILS_RESPONSE);
     private static final ApiResponse BANK_DETAILS_API_RESPONSE_BY_ID = new ApiResponse(Collections.singletonList(BANK_DETAILS_API_SUCCESS_BY_ID));
 
@@ -78,6 +97,14 @@ public class BankDetailsControllerAcceptanceTest {
 
     private final ObjectMapper mapper = new ObjectMapper();
 
+    @TestConfiguration
+    static class InlineBlockingCalls {
+        @Bean
+        BlockingCallExecutor blockingCallExecutor() {
+            return BlockingCallExecutor.inline();
+        }
+    }
+
     @MockBean
     private BankDetailsService service;
 
@@ -104,9 +131,10 @@ public class BankDetailsControllerAcceptanceTest {
         when(appInfo.getVersion()).thenReturn(StringUtils.EMPTY);
         when(uriBuilder.cloneBuilder()).thenReturn(new WithVersionUriComponentsBuilder(appInfo));
         when(service.save(any(), any())).thenReturn(VALID_BANKDETAILS_ID);
-        when(service.update(any(), any())).thenReturn(VALID_BANKDETAILS_ID);
-        when(service.getBankDetailsById(VALID_BANKDETAILS_ID)).thenReturn(SERVICE_BANK_DETAILS_RESPONSE);
-        when(service.getBankDetailsByClaimId(VALID_CLAIM_ID)).thenReturn(SERVICE_BANK_DETAILS_RESPONSE);
+        when(service.update(any(), any(), any()))
+                .thenReturn(BankDetailsUpdateResult.modified(VALID_BANKDETAILS_ID, SERVICE_TAGGED_BANK_DETAILS));
+        when(service.getBankDetailsById(VALID_BANKDETAILS_ID)).thenReturn(SERVICE_TAGGED_BANK_DETAILS);
+        when(service.getBankDetailsByClaimId(VALID_CLAIM_ID)).thenReturn(SERVICE_TAGGED_BANK_DETAILS);
     }
 
     @WithMockUser
@@ -165,12 +193,36 @@ public class BankDetailsControllerAcceptanceTest {
     @WithMockUser(role = Role.SCA)
     @Test
     public void GivenValidBankDetailsId_ShouldReturnBankDetails() throws Exception {
-        mockMvc.perform(get(VALID_BANKDETAILS_BY_ID_URL)
+        MvcResult result = mockMvc.perform(get(VALID_BANKDETAILS_BY_ID_URL)
                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(content().json(toJson(BANK_DETAILS_API_RESPONSE_BY_ID)))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"stored-hash-2\""))
                 .andExpect(status().isOk());
     }
 
+    @WithMockUser(role = Role.SCA)
+    @Test
+    public void GivenMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        final BankDetailsTag tag = mock(BankDetailsTag.class);
+        when(tag.getHash()).thenReturn("stored-hash");
+        when(tag.getVersion()).thenReturn(2L);
+        when(service.getTagById(VALID_BANKDETAILS_ID)).thenReturn(tag);
+
+        MvcResult result = mockMvc.perform(get(VALID_BANKDETAILS_BY_ID_URL)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"stored-hash-2\"")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"stored-hash-2\""))
+                .andExpect(status().isNotModified());
+    }
+
     @WithMockUser(role = Role.WC)
     @Test
     public void GivenUnvalidBankDetailsId_ShouldReturnNotFound() throws Exception {
@@ -185,8 +237,12 @@ public class BankDetailsControllerAcceptanceTest {
     @Test
     public void GivenValidClaimId_ShouldReturnBankDetailsList() throws Exception {
 
-        mockMvc.perform(get(VALID_BANKDETAILS_BY_CLAIM_ID_URL)
+        MvcResult result = mockMvc.perform(get(VALID_BANKDETAILS_BY_CLAIM_ID_URL)
                 .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(content().json(toJson(BANK_DETAILS_API_RESPONSE_BY_CLAIM_ID)))
                 .andExpect(status().isOk());
     }
@@ -214,7 +270,7 @@ public class BankDetailsControllerAcceptanceTest {
     @WithMockUser(role = Role.WC)
     @Test
     public void testGivenInValidIdShouldReturnNotFoundAndReturnExpectedURL() throws Exception {
-        when(service.getBankDetailsById(UNVALID_BANKDETAILS_ID)).thenThrow(BankDetailsByIdNotFoundException.class);
+        doThrow(BankDetailsByIdNotFoundException.class).when(service).delete(UNVALID_BANKDETAILS_ID);
 
         mockMvc.perform(delete(UNVALID_BANKDETAILS_BY_ID_URL)
                 .with(csrf())
@@ -233,6 +289,47 @@ public class BankDetailsControllerAcceptanceTest {
                 .andExpect(status().isOk());
     }
 
+    @WithMockUser
+    @Test
+    public void GivenIdempotencyKeyForExistingClaim_ShouldReturnTheExistingId() throws Exception {
+        when(service.saveIfAbsent(any(), any(), any()))
+                .thenReturn(BankDetailsCreateResult.existing(VALID_BANKDETAILS_ID, "hash", "key"));
+
+        mockMvc.perform(post(SAVE_BANK_DETAILS_URL)
+                .with(csrf())
+                .header(BankDetailsController.IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJson(BANK_DETAILS_REQUEST)))
+                .andExpect(content().string(containsString(VALID_BANKDETAILS_BY_ID_URL.toString())))
+                .andExpect(status().isOk());
+    }
+
+    @WithMockUser
+    @Test
+    public void GivenIdempotencyKeyReusedWithOtherBankDetails_ShouldReturnUnprocessableEntity() throws Exception {
+        when(service.saveIfAbsent(any(), any(), any())).thenThrow(BankDetailsIdempotencyKeyReusedException.class);
+
+        mockMvc.perform(post(SAVE_BANK_DETAILS_URL)
+                .with(csrf())
+                .header(BankDetailsController.IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJson(BANK_DETAILS_REQUEST)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @WithMockUser(role = Role.WC)
+    @Test
+    public void GivenStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        when(service.update(any(), any(), any())).thenThrow(BankDetailsPreconditionFailedException.class);
+
+        mockMvc.perform(patch(VALID_BANKDETAILS_BY_ID_URL)
+                .with(csrf())
+                .header(HttpHeaders.IF_MATCH, "\"stored-hash-1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(toJson(BANK_DETAILS_REQUEST)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
     private <T> String toJson(T objectToTransform) throws JsonProcessingException {
         return mapper.writeValueAsString(objectToTransform);
     }
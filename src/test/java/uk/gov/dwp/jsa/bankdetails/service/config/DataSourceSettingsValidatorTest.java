@@ -0,0 +1,55 @@
+package uk.gov.dwp.jsa.bankdetails.service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DataSourceSettingsValidatorTest {
+
+    private static final int THREADS = 32;
+    private static final int BATCH_SIZE = 50;
+
+    @Test
+    public void givenPoolSizedToTheThreads_Check_ShouldFindNothing() {
+        assertTrue(validator(pool("primary", THREADS, true)).check().isEmpty());
+    }
+
+    @Test
+    public void givenPoolLargerThanTheThreads_Check_ShouldWarnOfUnusedConnections() {
+        List<String> warnings = validator(pool("primary", THREADS + 1, true)).check();
+
+        assertEquals(1, warnings.size());
+        assertThat(warnings.get(0), containsString("never used"));
+    }
+
+    @Test
+    public void givenPoolSmallerThanTheThreads_Check_ShouldFindNothing() {
+        assertTrue(validator(pool("primary", THREADS - 1, true)).check().isEmpty());
+    }
+
+    @Test
+    public void givenBatchingWithoutRewrite_Check_ShouldWarnOnlyForThePrimary() {
+        assertThat(validator(pool("primary", THREADS, false)).check().get(0),
+                containsString(DataSourceSettingsValidator.REWRITE_BATCHED_INSERTS));
+        assertTrue(validator(pool(ReadReplicaConfig.REPLICA_POOL, THREADS, false)).check().isEmpty());
+    }
+
+    private static DataSourceSettingsValidator validator(final HikariDataSource pool) {
+        return new DataSourceSettingsValidator(Collections.singletonList(pool), THREADS, BATCH_SIZE);
+    }
+
+    private static HikariDataSource pool(final String name, final int size, final boolean rewrite) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(size);
+        pool.addDataSourceProperty(DataSourceSettingsValidator.REWRITE_BATCHED_INSERTS, String.valueOf(rewrite));
+        return pool;
+    }
+}
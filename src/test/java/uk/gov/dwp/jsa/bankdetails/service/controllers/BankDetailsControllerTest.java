@@ -18,18 +18,43 @@ import uk.gov.dwp.jsa.bankdetails.service.AppInfo;
 import uk.gov.dwp.jsa.bankdetails.service.config.WithVersionUriComponentsBuilder;
 import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsByClaimIdNotFoundException;
 import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsByIdNotFoundException;
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsPreconditionFailedException;
+import uk.gov.dwp.jsa.bankdetails.service.execution.BlockingCallExecutor;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsBatchItem;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsBatchRequest;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsBatchResult;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsLookupRequest;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsLookupResult;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsMetadataResponse;
 import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
 import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsResponse;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsMetadata;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsTag;
+import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsCreateResult;
 import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsService;
+import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsUpdateResult;
+import uk.gov.dwp.jsa.bankdetails.service.services.TaggedBankDetails;
 
 import javax.servlet.http.HttpServletRequest;
 import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -43,6 +68,20 @@ public class BankDetailsControllerTest {
     private static final UUID VALID_CLAIM_ID = UUID.randomUUID();
     private static final UUID UNVALID_CLAIM_ID = UUID.randomUUID();
     private static final URI VALID_BD_URL = URI.create(NSJSA_CITIZEN_BASE_URL + "/bank-details/" + VALID_BD_ID);
+    private static final String HASH = "stored-hash";
+    private static final Long VERSION = 3L;
+    private static final String ETAG = "\"" + HASH + "-" + VERSION + "\"";
+    private static final BankDetailsTag TAG = new BankDetailsTag() {
+        @Override
+        public String getHash() {
+            return HASH;
+        }
+
+        @Override
+        public Long getVersion() {
+            return VERSION;
+        }
+    };
 
     private BankDetailsController sut;
 
@@ -71,17 +110,21 @@ public class BankDetailsControllerTest {
         request.setScheme("http");
 
         RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
-        sut = new BankDetailsController(bankDetailsService, new WithVersionUriComponentsBuilder(appInfo));
+        sut = new BankDetailsController(bankDetailsService, new WithVersionUriComponentsBuilder(appInfo),
+                BlockingCallExecutor.inline());
         when(bankDetailsService.save(any(), any())).thenReturn(VALID_BD_ID);
-        when(bankDetailsService.getBankDetailsById(VALID_BD_ID)).thenReturn(expectedResponse);
-        when(bankDetailsService.getBankDetailsByClaimId(VALID_CLAIM_ID)).thenReturn(expectedResponse);
+        when(bankDetailsService.update(any(), any(), any()))
+                .thenReturn(BankDetailsUpdateResult.modified(VALID_BD_ID, TAG));
+        when(bankDetailsService.getBankDetailsById(VALID_BD_ID)).thenReturn(tagged(VERSION));
+        when(bankDetailsService.getBankDetailsByClaimId(VALID_CLAIM_ID)).thenReturn(tagged(VERSION));
         when(httpServletRequest.getRequestURI()).thenReturn(VALID_BD_URL.toString());
         when(bankDetailsService.getBankDetailsById(UNVALID_BD_ID)).thenThrow(BankDetailsByIdNotFoundException.class);
     }
 
     @Test
     public void givenValidRequest_Controller_ShouldReturnExpectedResponse() {
-        ResponseEntity<ApiResponse<UUID>> uriResponseEntity = sut.createBankDetails(VALID_CLAIM_ID, bankDetailsRequest);
+        ResponseEntity<ApiResponse<UUID>> uriResponseEntity = sut.createBankDetails(VALID_CLAIM_ID, null,
+                bankDetailsRequest);
         ApiSuccess<UUID> apiSuccess = uriResponseEntity.getBody().getSuccess().get(0);
         assertEquals(HttpStatus.CREATED, uriResponseEntity.getStatusCode());
         assertEquals(VALID_BD_URL, apiSuccess.getPath());
@@ -89,9 +132,33 @@ public class BankDetailsControllerTest {
 
     }
 
+    @Test
+    public void givenIdempotencyKey_createBankDetails_ShouldCreateIfAbsent() {
+        when(bankDetailsService.saveIfAbsent(VALID_CLAIM_ID, "key", bankDetailsRequest))
+                .thenReturn(BankDetailsCreateResult.created(VALID_BD_ID));
+
+        ResponseEntity<ApiResponse<UUID>> response = sut.createBankDetails(VALID_CLAIM_ID, "key", bankDetailsRequest);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(VALID_BD_ID, response.getBody().getSuccess().get(0).getData());
+        verify(bankDetailsService, never()).save(any(), any());
+    }
+
+    @Test
+    public void givenIdempotencyKeyAndExistingBankDetails_createBankDetails_ShouldReturnTheExistingId() {
+        when(bankDetailsService.saveIfAbsent(VALID_CLAIM_ID, "key", bankDetailsRequest))
+                .thenReturn(BankDetailsCreateResult.existing(VALID_BD_ID, "hash", "key"));
+
+        ResponseEntity<ApiResponse<UUID>> response = sut.createBankDetails(VALID_CLAIM_ID, "key", bankDetailsRequest);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(VALID_BD_URL, response.getBody().getSuccess().get(0).getPath());
+        assertEquals(VALID_BD_ID, response.getBody().getSuccess().get(0).getData());
+    }
+
     @Test
     public void givenValidRequest_ServiceSave_ShouldBeCalledOnce() {
-        sut.createBankDetails(VALID_BD_ID, bankDetailsRequest);
+        sut.createBankDetails(VALID_BD_ID, null, bankDetailsRequest);
 
         ArgumentCaptor<BankDetailsRequest> captor = ArgumentCaptor.forClass(BankDetailsRequest.class);
 
@@ -103,21 +170,151 @@ public class BankDetailsControllerTest {
     @Test
     public void givenValidBankDetailsId_getBankDetailsById_ShouldReturnTheBankDetailsInformation() {
         ResponseEntity<ApiResponse<BankDetailsResponse>> bankDetailsResponse = sut.getBankDetailsById(VALID_BD_ID,
-                httpServletRequest);
+                null, null, httpServletRequest).join();
         assertEquals(expectedResponse, bankDetailsResponse.getBody().getSuccess().get(0).getData());
         assertEquals(HttpStatus.OK, bankDetailsResponse.getStatusCode());
     }
 
+    @Test
+    public void givenValidBankDetailsId_getBankDetailsById_ShouldReturnETagOfTheReturnedBankDetails() {
+        ResponseEntity<ApiResponse<BankDetailsResponse>> response =
+                sut.getBankDetailsById(VALID_BD_ID, null, null, httpServletRequest).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        verify(bankDetailsService, never()).getTagById(any());
+    }
+
+    @Test
+    public void givenStaleCachedBankDetails_getBankDetailsById_ShouldTagTheBodyWithItsOwnVersion() {
+        String staleETag = "\"" + HASH + "-" + (VERSION - 1) + "\"";
+        when(bankDetailsService.getTagById(VALID_BD_ID)).thenReturn(TAG);
+        when(bankDetailsService.getBankDetailsById(VALID_BD_ID)).thenReturn(tagged(VERSION - 1));
+
+        ResponseEntity<ApiResponse<BankDetailsResponse>> response =
+                sut.getBankDetailsById(VALID_BD_ID, null, staleETag, httpServletRequest).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(staleETag, response.getHeaders().getETag());
+    }
+
+    @Test
+    public void givenMatchingIfNoneMatch_getBankDetailsById_ShouldReturnNotModifiedWithoutLoading() {
+        when(bankDetailsService.getTagById(VALID_BD_ID)).thenReturn(TAG);
+
+        ResponseEntity<ApiResponse<BankDetailsResponse>> response =
+                sut.getBankDetailsById(VALID_BD_ID, null, ETAG, httpServletRequest).join();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(bankDetailsService, never()).getBankDetailsById(any());
+    }
+
+    @Test
+    public void givenMatchingWeakIfNoneMatch_getBankDetailsByClaimId_ShouldReturnNotModifiedWithoutLoading() {
+        when(bankDetailsService.getTagByClaimId(VALID_CLAIM_ID)).thenReturn(TAG);
+
+        ResponseEntity<ApiResponse<BankDetailsResponse>> response =
+                sut.getBankDetailsByClaimId(VALID_CLAIM_ID, null, "\"other\", W/" + ETAG, httpServletRequest).join();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(bankDetailsService, never()).getBankDetailsByClaimId(any());
+    }
+
+    @Test
+    public void givenStaleIfNoneMatch_getBankDetailsByClaimId_ShouldReturnTheBankDetails() {
+        when(bankDetailsService.getTagByClaimId(VALID_CLAIM_ID)).thenReturn(TAG);
+
+        ResponseEntity<ApiResponse<BankDetailsResponse>> response =
+                sut.getBankDetailsByClaimId(VALID_CLAIM_ID, null, "\"" + HASH + "-" + (VERSION - 1) + "\"",
+                        httpServletRequest).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody().getSuccess().get(0).getData());
+    }
+
+    @Test
+    public void givenExistingBankDetails_headBankDetailsByClaimId_ShouldReturnETagWithoutLoading() {
+        when(bankDetailsService.getTagByClaimId(VALID_CLAIM_ID)).thenReturn(TAG);
+
+        ResponseEntity<Void> response = sut.headBankDetailsByClaimId(VALID_CLAIM_ID, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(bankDetailsService, never()).getBankDetailsByClaimId(any());
+    }
+
+    @Test
+    public void givenMatchingIfNoneMatch_headBankDetailsByClaimId_ShouldReturnNotModified() {
+        when(bankDetailsService.getTagByClaimId(VALID_CLAIM_ID)).thenReturn(TAG);
+
+        ResponseEntity<Void> response = sut.headBankDetailsByClaimId(VALID_CLAIM_ID, ETAG);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    }
+
+    @Test(expected = BankDetailsByClaimIdNotFoundException.class)
+    public void givenUnvalidClaimId_headBankDetailsByClaimId_ShouldReturn404() {
+        when(bankDetailsService.getTagByClaimId(UNVALID_CLAIM_ID))
+                .thenThrow(BankDetailsByClaimIdNotFoundException.class);
+        sut.headBankDetailsByClaimId(UNVALID_CLAIM_ID, null);
+    }
+
+    @Test
+    public void givenValidClaimId_getBankDetailsMetadataByClaimId_ShouldReturnMetadataWithoutLoading() {
+        BankDetailsMetadata metadata = mock(BankDetailsMetadata.class);
+        when(metadata.getId()).thenReturn(VALID_BD_ID);
+        when(metadata.getHash()).thenReturn(HASH);
+        when(metadata.getVersion()).thenReturn(VERSION);
+        when(bankDetailsService.getMetadataByClaimId(VALID_CLAIM_ID)).thenReturn(metadata);
+
+        ResponseEntity<ApiResponse<BankDetailsMetadataResponse>> response =
+                sut.getBankDetailsMetadataByClaimId(VALID_CLAIM_ID, null, httpServletRequest);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertEquals(VALID_BD_ID, response.getBody().getSuccess().get(0).getData().getId());
+        verify(bankDetailsService, never()).getBankDetailsByClaimId(any());
+    }
+
+    @Test
+    public void givenFieldSelection_getBankDetailsByClaimId_ShouldReadOnlyThoseFields() {
+        Set<String> fields = Collections.singleton("sortCode");
+        when(bankDetailsService.getBankDetailsByClaimId(VALID_CLAIM_ID, fields)).thenReturn(tagged(VERSION));
+
+        ResponseEntity<ApiResponse<BankDetailsResponse>> response =
+                sut.getBankDetailsByClaimId(VALID_CLAIM_ID, fields, null, httpServletRequest).join();
+
+        assertEquals(expectedResponse, response.getBody().getSuccess().get(0).getData());
+        assertEquals("\"" + HASH + ".sortCode-" + VERSION + "\"", response.getHeaders().getETag());
+        verify(bankDetailsService, never()).getBankDetailsByClaimId(VALID_CLAIM_ID);
+    }
+
+    @Test
+    public void givenFieldSelectionAndETagOfTheWholeBankDetails_getBankDetailsByClaimId_ShouldReturnTheFields() {
+        Set<String> fields = new LinkedHashSet<>(Arrays.asList("sortCode", "accountNumber"));
+        when(bankDetailsService.getTagByClaimId(VALID_CLAIM_ID)).thenReturn(TAG);
+        when(bankDetailsService.getBankDetailsByClaimId(VALID_CLAIM_ID, fields)).thenReturn(tagged(VERSION));
+
+        ResponseEntity<ApiResponse<BankDetailsResponse>> response =
+                sut.getBankDetailsByClaimId(VALID_CLAIM_ID, fields, ETAG, httpServletRequest).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"" + HASH + ".accountNumber.sortCode-" + VERSION + "\"", response.getHeaders().getETag());
+    }
+
     @Test(expected = BankDetailsByIdNotFoundException.class)
     public void givenUnvalidBankDetailsId_getBankDetailsById_ShouldReturn404() {
         when(bankDetailsService.getBankDetailsById(any())).thenThrow(BankDetailsByIdNotFoundException.class);
-        sut.getBankDetailsById(UNVALID_BD_ID, httpServletRequest);
+        sut.getBankDetailsById(UNVALID_BD_ID, null, null, httpServletRequest);
     }
 
     @Test
     public void givenValidClaimId_getBankDetailsByClaimId_ShouldReturnTheBankDetailsInformation() {
         ResponseEntity<ApiResponse<BankDetailsResponse>> response =
-                sut.getBankDetailsByClaimId(VALID_CLAIM_ID, httpServletRequest);
+                sut.getBankDetailsByClaimId(VALID_CLAIM_ID, null, null, httpServletRequest).join();
         assertEquals(expectedResponse, response.getBody().getSuccess().get(0).getData());
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
@@ -126,7 +323,37 @@ public class BankDetailsControllerTest {
     public void givenUnvalidClaimId_getBankDetailsByClaimId_ShouldReturn404() {
         when(bankDetailsService.getBankDetailsByClaimId(UNVALID_CLAIM_ID))
                 .thenThrow(BankDetailsByClaimIdNotFoundException.class);
-        sut.getBankDetailsByClaimId(UNVALID_CLAIM_ID, httpServletRequest);
+        sut.getBankDetailsByClaimId(UNVALID_CLAIM_ID, null, null, httpServletRequest);
+    }
+
+    @Test
+    public void givenClaimIds_lookupBankDetailsByClaimIds_ShouldReturnResultPerClaimId() {
+        List<UUID> claimIds = Arrays.asList(VALID_CLAIM_ID, UNVALID_CLAIM_ID);
+        Map<UUID, BankDetailsLookupResult> expectedResults = new LinkedHashMap<>();
+        expectedResults.put(VALID_CLAIM_ID, BankDetailsLookupResult.found(expectedResponse));
+        expectedResults.put(UNVALID_CLAIM_ID, BankDetailsLookupResult.notFound());
+        when(bankDetailsService.getBankDetailsByClaimIds(claimIds)).thenReturn(expectedResults);
+
+        ResponseEntity<ApiResponse<Map<UUID, BankDetailsLookupResult>>> response =
+                sut.lookupBankDetailsByClaimIds(new BankDetailsLookupRequest(claimIds), httpServletRequest).join();
+
+        assertEquals(expectedResults, response.getBody().getSuccess().get(0).getData());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    public void givenBatch_createBankDetailsBatch_ShouldReturnResultPerItem() {
+        List<BankDetailsBatchItem> items =
+                Collections.singletonList(new BankDetailsBatchItem(VALID_CLAIM_ID, bankDetailsRequest));
+        List<BankDetailsBatchResult> expectedResults =
+                Collections.singletonList(BankDetailsBatchResult.created(VALID_CLAIM_ID, VALID_BD_ID));
+        when(bankDetailsService.saveAll(items)).thenReturn(expectedResults);
+
+        ResponseEntity<ApiResponse<List<BankDetailsBatchResult>>> response =
+                sut.createBankDetailsBatch(new BankDetailsBatchRequest(items), httpServletRequest);
+
+        assertEquals(expectedResults, response.getBody().getSuccess().get(0).getData());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
     @Test
@@ -135,22 +362,71 @@ public class BankDetailsControllerTest {
                 httpServletRequest);
         assertEquals(VALID_BD_URL, bankDetailsResponse.getBody().getSuccess().get(0).getPath());
         assertEquals(HttpStatus.OK, bankDetailsResponse.getStatusCode());
+        verify(bankDetailsService, never()).getBankDetailsById(any());
     }
 
     @Test(expected = BankDetailsByIdNotFoundException.class)
     public void testGivenInValidIdShouldReturnNotFound() {
+        doThrow(BankDetailsByIdNotFoundException.class).when(bankDetailsService).delete(UNVALID_BD_ID);
         ResponseEntity<ApiResponse<BankDetailsResponse>> bankDetailsResponse = sut.deleteBankDetails(UNVALID_BD_ID,
                 httpServletRequest);
     }
 
     @Test
     public void givenValidRequest_ServiceUpdate_ShouldBeCalledOnce() {
-        sut.updateBankDetails(VALID_BD_ID, bankDetailsRequest);
+        sut.updateBankDetails(VALID_BD_ID, null, bankDetailsRequest);
 
         ArgumentCaptor<BankDetailsRequest> captor = ArgumentCaptor.forClass(BankDetailsRequest.class);
 
-        verify(bankDetailsService, times(1)).update(any(), captor.capture());
+        verify(bankDetailsService, times(1)).update(any(), captor.capture(), isNull());
 
         assertThat(captor.getValue(), is(bankDetailsRequest));
     }
+
+    @Test
+    public void givenUnchangedRequest_updateBankDetails_ShouldFlagTheResponseAsNotModified() {
+        when(bankDetailsService.update(any(), any(), any()))
+                .thenReturn(BankDetailsUpdateResult.notModified(VALID_BD_ID, TAG));
+
+        ResponseEntity<ApiResponse<UUID>> response = sut.updateBankDetails(VALID_BD_ID, null, bankDetailsRequest);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("false", response.getHeaders().getFirst(BankDetailsController.MODIFIED_HEADER));
+        assertEquals(VALID_BD_ID, response.getBody().getSuccess().get(0).getData());
+        assertEquals(ETAG, response.getHeaders().getETag());
+    }
+
+    @Test
+    public void givenIfMatch_updateBankDetails_ShouldTagTheResponseWithTheNewVersion() {
+        when(bankDetailsService.update(any(), any(), any()))
+                .thenReturn(BankDetailsUpdateResult.modified(VALID_BD_ID, tagged(VERSION + 1)));
+
+        ResponseEntity<ApiResponse<UUID>> response = sut.updateBankDetails(VALID_BD_ID, ETAG, bankDetailsRequest);
+
+        assertEquals("true", response.getHeaders().getFirst(BankDetailsController.MODIFIED_HEADER));
+        assertEquals("\"" + HASH + "-" + (VERSION + 1) + "\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    public void givenIfMatch_updateBankDetails_ShouldUpdateOnlyAtTheTaggedVersion() {
+        sut.updateBankDetails(VALID_BD_ID, ETAG, bankDetailsRequest);
+
+        verify(bankDetailsService).update(VALID_BD_ID, bankDetailsRequest, VERSION);
+    }
+
+    @Test
+    public void givenWildcardIfMatch_updateBankDetails_ShouldUpdateUnconditionally() {
+        sut.updateBankDetails(VALID_BD_ID, "*", bankDetailsRequest);
+
+        verify(bankDetailsService).update(VALID_BD_ID, bankDetailsRequest, null);
+    }
+
+    @Test(expected = BankDetailsPreconditionFailedException.class)
+    public void givenUnreadableIfMatch_updateBankDetails_ShouldFailThePrecondition() {
+        sut.updateBankDetails(VALID_BD_ID, "\"not-a-tag\"", bankDetailsRequest);
+    }
+
+    private TaggedBankDetails tagged(final Long version) {
+        return new TaggedBankDetails(expectedResponse, HASH, version);
+    }
 }
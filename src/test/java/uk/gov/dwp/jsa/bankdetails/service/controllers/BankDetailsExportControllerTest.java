@@ -0,0 +1,81 @@
+package uk.gov.dwp.jsa.bankdetails.service.controllers;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import uk.gov.dwp.jsa.bankdetails.service.services.BankDetailsExportService;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BankDetailsExportControllerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2020, 6, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+    private static final Duration TIMEOUT = Duration.ofMinutes(30);
+
+    @Mock
+    private BankDetailsExportService exportService;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    private BankDetailsExportController sut;
+
+    @Before
+    public void setUp() {
+        sut = new BankDetailsExportController(exportService, TIMEOUT);
+    }
+
+    @Test
+    public void givenWindow_exportBankDetails_ShouldStreamTheServiceOutput() throws Exception {
+        ResponseEntity<StreamingResponseBody> response =
+                sut.exportBankDetails(FROM, TO, BankDetailsExportService.Timestamp.UPDATED, request);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(BankDetailsExportController.NDJSON_VALUE, response.getHeaders().getContentType().toString());
+        verify(exportService).export(BankDetailsExportService.Timestamp.UPDATED, FROM, TO, out);
+    }
+
+    @Test
+    public void givenWindow_exportBankDetails_ShouldStreamWithTheExportTimeout() throws Exception {
+        sut.exportBankDetails(FROM, TO, BankDetailsExportService.Timestamp.UPDATED, request);
+        request.setAsyncSupported(true);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, new MockHttpServletResponse()));
+
+        asyncManager.startCallableProcessing(() -> null);
+
+        assertEquals(TIMEOUT.toMillis(), request.getAsyncContext().getTimeout());
+    }
+
+    @Test
+    public void givenEmptyWindow_exportBankDetails_ShouldReturnBadRequest() throws Exception {
+        ResponseEntity<StreamingResponseBody> response =
+                sut.exportBankDetails(TO, FROM, BankDetailsExportService.Timestamp.UPDATED, request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(exportService, never()).export(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,111 @@
+package uk.gov.dwp.jsa.bankdetails.service.datasource;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.gov.dwp.jsa.bankdetails.service.datasource.ReadReplicaRoutingDataSource.Route;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReadReplicaRoutingDataSourceTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private ReadRouting readRouting;
+
+    private ReadReplicaRoutingDataSource sut;
+
+    @Before
+    public void setUp() {
+        Ticker ticker = nanos::get;
+        readRouting = new ReadRouting(true, WINDOW, ticker);
+        sut = new ReadReplicaRoutingDataSource(primary, replica);
+        sut.afterPropertiesSet();
+        authenticateAs("caller");
+    }
+
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Test
+    public void givenReadOutsideReplicaScope_ShouldRouteToPrimary() {
+        assertEquals(Route.PRIMARY, sut.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void givenReadInReplicaScope_ShouldRouteToReplica() {
+        assertEquals(Route.REPLICA, readRouting.fromReplica(sut::determineCurrentLookupKey));
+    }
+
+    @Test
+    public void givenReadOnlyTransactionInReplicaScope_ShouldRouteToReplica() {
+        beginTransaction(true);
+        assertEquals(Route.REPLICA, readRouting.fromReplica(sut::determineCurrentLookupKey));
+    }
+
+    @Test
+    public void givenReadWriteTransactionInReplicaScope_ShouldRouteToPrimary() {
+        beginTransaction(false);
+        assertEquals(Route.PRIMARY, readRouting.fromReplica(sut::determineCurrentLookupKey));
+    }
+
+    @Test
+    public void givenRecentWrite_ShouldRouteTheWritersReadsToPrimaryUntilTheWindowPasses() {
+        readRouting.recordWrite();
+
+        assertEquals(Route.PRIMARY, readRouting.fromReplica(sut::determineCurrentLookupKey));
+        authenticateAs("another-caller");
+        assertEquals(Route.REPLICA, readRouting.fromReplica(sut::determineCurrentLookupKey));
+
+        authenticateAs("caller");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(WINDOW.getSeconds() + 1));
+        assertEquals(Route.REPLICA, readRouting.fromReplica(sut::determineCurrentLookupKey));
+    }
+
+    @Test
+    public void givenReplicaScopeHasEnded_ShouldRouteToPrimary() {
+        readRouting.fromReplica(sut::determineCurrentLookupKey);
+        assertEquals(Route.PRIMARY, sut.determineCurrentLookupKey());
+    }
+
+    @Test
+    public void givenRoutingDisabled_ShouldRouteToPrimary() {
+        assertEquals(Route.PRIMARY, ReadRouting.disabled().fromReplica(sut::determineCurrentLookupKey));
+    }
+
+    private static void authenticateAs(final String caller) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(caller, null));
+    }
+
+    private static void beginTransaction(final boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
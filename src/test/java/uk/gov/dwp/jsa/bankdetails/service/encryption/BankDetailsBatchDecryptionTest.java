@@ -0,0 +1,128 @@
+package uk.gov.dwp.jsa.bankdetails.service.encryption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BankDetailsBatchDecryptionTest {
+
+    private static final List<String> PAYLOADS = Arrays.asList("first", "second", "third", "fourth");
+
+    @Mock
+    private BankDetailsRequestJsonEncryption encryption;
+
+    private ThreadPoolExecutor pool;
+
+    private BankDetailsBatchDecryption sut;
+
+    @Before
+    public void setUp() {
+        pool = new ThreadPoolExecutor(PAYLOADS.size(), PAYLOADS.size(), 0L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(PAYLOADS.size()), new ThreadPoolExecutor.AbortPolicy());
+        sut = new BankDetailsBatchDecryption(encryption, pool);
+    }
+
+    @After
+    public void tearDown() {
+        sut.shutdown();
+    }
+
+    @Test
+    public void givenPool_DecryptAll_ShouldDecryptConcurrentlyAndKeepTheOrder() {
+        final CountDownLatch allStarted = new CountDownLatch(PAYLOADS.size());
+        when(encryption.decrypt(anyString())).thenAnswer(invocation -> {
+            allStarted.countDown();
+            assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+            return request(invocation.getArgument(0));
+        });
+
+        List<BankDetailsRequest> decrypted = sut.decryptAll(PAYLOADS);
+
+        assertEquals(PAYLOADS.size(), decrypted.size());
+        for (int i = 0; i < PAYLOADS.size(); i++) {
+            assertEquals(PAYLOADS.get(i), decrypted.get(i).getReference());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void givenFailedRow_DecryptAll_ShouldThrowTheFailure() {
+        when(encryption.decrypt(anyString())).thenAnswer(invocation -> request(invocation.getArgument(0)));
+        doThrow(new IllegalStateException()).when(encryption).decrypt("third");
+
+        sut.decryptAll(PAYLOADS);
+    }
+
+    @Test
+    public void givenFullQueue_DecryptAll_ShouldDecryptTheRejectedRowsOnTheCallingThread() {
+        final Thread caller = Thread.currentThread();
+        final CountDownLatch rejected = new CountDownLatch(1);
+        sut.shutdown();
+        pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        sut = new BankDetailsBatchDecryption(encryption, pool);
+        when(encryption.decrypt(anyString())).thenAnswer(invocation -> {
+            if (Thread.currentThread() == caller) {
+                rejected.countDown();
+            } else {
+                assertTrue(rejected.await(5, TimeUnit.SECONDS));
+            }
+            return request(invocation.getArgument(0));
+        });
+
+        List<BankDetailsRequest> decrypted = sut.decryptAll(PAYLOADS);
+
+        assertEquals(PAYLOADS.get(3), decrypted.get(3).getReference());
+    }
+
+    @Test
+    public void givenPoolShutDown_DecryptAll_ShouldDecryptOnTheCallingThread() {
+        final Thread caller = Thread.currentThread();
+        when(encryption.decrypt(anyString())).thenAnswer(invocation -> {
+            assertEquals(caller, Thread.currentThread());
+            return request(invocation.getArgument(0));
+        });
+        sut.shutdown();
+
+        List<BankDetailsRequest> decrypted = sut.decryptAll(PAYLOADS);
+
+        assertEquals(PAYLOADS.get(0), decrypted.get(0).getReference());
+        assertEquals(PAYLOADS.get(3), decrypted.get(3).getReference());
+    }
+
+    @Test
+    public void givenSequential_DecryptAll_ShouldDecryptOnTheCallingThread() {
+        final Thread caller = Thread.currentThread();
+        when(encryption.decrypt(anyString())).thenAnswer(invocation -> {
+            assertEquals(caller, Thread.currentThread());
+            return request(invocation.getArgument(0));
+        });
+
+        List<BankDetailsRequest> decrypted = BankDetailsBatchDecryption.sequential(encryption).decryptAll(PAYLOADS);
+
+        assertEquals(PAYLOADS.get(0), decrypted.get(0).getReference());
+        assertEquals(PAYLOADS.get(3), decrypted.get(3).getReference());
+    }
+
+    private static BankDetailsRequest request(final String reference) {
+        final BankDetailsRequest request = new BankDetailsRequest();
+        request.setReference(reference);
+        return request;
+    }
+}
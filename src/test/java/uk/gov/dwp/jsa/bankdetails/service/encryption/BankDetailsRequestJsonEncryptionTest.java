@@ -0,0 +1,132 @@
+package uk.gov.dwp.jsa.bankdetails.service.encryption;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.beans.factory.ObjectProvider;
+import uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+import uk.gov.dwp.jsa.security.encryption.EncryptionStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BankDetailsRequestJsonEncryptionTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final CountingEncryptionStrategy strategy = new CountingEncryptionStrategy();
+
+    @Mock
+    private ObjectProvider<DataKeyCache> dataKeyCache;
+
+    private BankDetailsRequestJsonEncryption sut;
+
+    private BankDetailsRequest request;
+
+    @Before
+    public void setUp() {
+        sut = encryption(true);
+        request = new BankDetailsRequest();
+        request.setAccountHolder("Account Holder");
+        request.setAccountNumber("12345678");
+        request.setSortCode("112233");
+        request.setReference("reference");
+        request.setServiceVersion("v1");
+    }
+
+    @Test
+    public void givenSingleEnvelopeMode_Encrypt_ShouldPackSecuredFieldsIntoOneCipherText() throws Exception {
+        JsonNode stored = mapper.readTree(sut.encrypt(request));
+
+        assertEquals(1, strategy.encryptions.get());
+        assertEquals(BankDetailsRequestJsonEncryption.ENVELOPE_FORMAT,
+                stored.get(BankDetailsRequestJsonEncryption.FORMAT_FIELD).asInt());
+        assertFalse(stored.has("accountNumber"));
+        assertFalse(stored.has("sortCode"));
+        assertEquals("v1", stored.get("serviceVersion").asText());
+    }
+
+    @Test
+    public void givenSingleEnvelopeRow_Decrypt_ShouldRestoreTheSecuredFieldsWithOneCall() {
+        BankDetailsRequest decrypted = sut.decrypt(sut.encrypt(request));
+
+        assertEquals(1, strategy.decryptions.get());
+        assertEquals(request.getAccountHolder(), decrypted.getAccountHolder());
+        assertEquals(request.getAccountNumber(), decrypted.getAccountNumber());
+        assertEquals(request.getSortCode(), decrypted.getSortCode());
+        assertEquals(request.getReference(), decrypted.getReference());
+        assertEquals(request.getServiceVersion(), decrypted.getServiceVersion());
+    }
+
+    @Test
+    public void givenSingleEnvelopeModeAndPerFieldRow_Decrypt_ShouldDecryptEachSecuredField() throws Exception {
+        String perFieldRow = encryption(false).encrypt(request);
+        strategy.encryptions.set(0);
+
+        BankDetailsRequest decrypted = sut.decrypt(perFieldRow);
+
+        assertFalse(mapper.readTree(perFieldRow).has(BankDetailsRequestJsonEncryption.FORMAT_FIELD));
+        assertTrue(strategy.decryptions.get() > 1);
+        assertRestored(decrypted);
+    }
+
+    @Test
+    public void givenSingleEnvelopeModeTurnedOff_Decrypt_ShouldStillReadSingleEnvelopeRows() {
+        String singleEnvelopeRow = sut.encrypt(request);
+
+        BankDetailsRequest decrypted = encryption(false).decrypt(singleEnvelopeRow);
+
+        assertEquals(1, strategy.decryptions.get());
+        assertRestored(decrypted);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void givenEnvelopeInAnUnknownFormat_Decrypt_ShouldThrow() throws Exception {
+        ObjectNode stored = (ObjectNode) mapper.readTree(sut.encrypt(request));
+        stored.put(BankDetailsRequestJsonEncryption.FORMAT_FIELD, BankDetailsRequestJsonEncryption.ENVELOPE_FORMAT + 1);
+
+        sut.decrypt(stored.toString());
+    }
+
+    private BankDetailsRequestJsonEncryption encryption(final boolean singleEnvelope) {
+        return new BankDetailsRequestJsonEncryption(strategy, mapper, dataKeyCache, false, singleEnvelope,
+                PipelineTimings.disabled());
+    }
+
+    private void assertRestored(final BankDetailsRequest decrypted) {
+        assertEquals(request.getAccountHolder(), decrypted.getAccountHolder());
+        assertEquals(request.getAccountNumber(), decrypted.getAccountNumber());
+        assertEquals(request.getSortCode(), decrypted.getSortCode());
+        assertEquals(request.getReference(), decrypted.getReference());
+        assertEquals(request.getServiceVersion(), decrypted.getServiceVersion());
+    }
+
+    private static final class CountingEncryptionStrategy implements EncryptionStrategy {
+        private final AtomicInteger encryptions = new AtomicInteger();
+        private final AtomicInteger decryptions = new AtomicInteger();
+
+        @Override
+        public String encrypt(final String value) {
+            encryptions.incrementAndGet();
+            return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String decrypt(final String value) {
+            decryptions.incrementAndGet();
+            return new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package uk.gov.dwp.jsa.bankdetails.service.encryption;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.dwp.jsa.security.encryption.EncryptionStrategy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DataKeyCachingEncryptionStrategyTest {
+
+    private static final String SORT_CODE = "112233";
+
+    @Mock
+    private EncryptionStrategy legacyStrategy;
+
+    private CountingDataKeyProvider provider;
+
+    private DataKeyCachingEncryptionStrategy sut;
+
+    @Before
+    public void setUp() {
+        provider = new CountingDataKeyProvider(new LocalDataKeyProvider(new byte[LocalDataKeyProvider.KEY_BYTES]));
+        sut = new DataKeyCachingEncryptionStrategy(legacyStrategy, cache(), true);
+    }
+
+    @Test
+    public void givenValue_EncryptThenDecrypt_ShouldRoundTripWithoutLegacyStrategy() {
+        String encrypted = sut.encrypt(SORT_CODE);
+
+        assertTrue(encrypted.startsWith(DataKeyCachingEncryptionStrategy.PREFIX));
+        assertNotEquals(SORT_CODE, encrypted);
+        assertEquals(SORT_CODE, sut.decrypt(encrypted));
+        verifyNoInteractions(legacyStrategy);
+    }
+
+    @Test
+    public void givenManyValues_Encrypt_ShouldGenerateADataKeyPerMaxUses() {
+        for (int i = 0; i < 7; i++) {
+            sut.encrypt(SORT_CODE);
+        }
+
+        assertEquals(3, provider.generated.get());
+        assertEquals(0, provider.decrypted.get());
+    }
+
+    @Test
+    public void givenValueFromAnotherInstance_Decrypt_ShouldUnwrapTheDataKeyOnce() {
+        DataKeyCachingEncryptionStrategy writer = new DataKeyCachingEncryptionStrategy(legacyStrategy, cache(), true);
+        String first = writer.encrypt(SORT_CODE);
+        String second = writer.encrypt(SORT_CODE);
+
+        assertEquals(SORT_CODE, sut.decrypt(first));
+        assertEquals(SORT_CODE, sut.decrypt(second));
+        assertEquals(1, provider.decrypted.get());
+    }
+
+    @Test
+    public void givenValueWithoutPrefix_Decrypt_ShouldUseLegacyStrategy() {
+        when(legacyStrategy.decrypt("legacy-cipher-text")).thenReturn(SORT_CODE);
+
+        assertEquals(SORT_CODE, sut.decrypt("legacy-cipher-text"));
+    }
+
+    @Test
+    public void givenDataKeyEncryptionTurnedOff_ShouldEncryptWithLegacyStrategyAndStillDecryptDataKeyValues() {
+        String written = sut.encrypt(SORT_CODE);
+        DataKeyCachingEncryptionStrategy turnedOff =
+                new DataKeyCachingEncryptionStrategy(legacyStrategy, cache(), false);
+        when(legacyStrategy.encrypt(SORT_CODE)).thenReturn("legacy-cipher-text");
+
+        assertEquals("legacy-cipher-text", turnedOff.encrypt(SORT_CODE));
+        assertEquals(SORT_CODE, turnedOff.decrypt(written));
+    }
+
+    private DataKeyCache cache() {
+        return new DataKeyCache(provider, Duration.ofMinutes(5), 3);
+    }
+
+    private static final class CountingDataKeyProvider implements DataKeyProvider {
+        private final DataKeyProvider delegate;
+        private final AtomicInteger generated = new AtomicInteger();
+        private final AtomicInteger decrypted = new AtomicInteger();
+
+        private CountingDataKeyProvider(final DataKeyProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public DataKey generateDataKey() {
+            generated.incrementAndGet();
+            return delegate.generateDataKey();
+        }
+
+        @Override
+        public byte[] decryptDataKey(final byte[] encryptedKey) {
+            decrypted.incrementAndGet();
+            return delegate.decryptDataKey(encryptedKey);
+        }
+    }
+}
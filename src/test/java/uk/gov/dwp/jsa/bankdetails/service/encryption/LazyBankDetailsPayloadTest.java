@@ -0,0 +1,137 @@
+package uk.gov.dwp.jsa.bankdetails.service.encryption;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.beans.factory.ObjectProvider;
+import uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+import uk.gov.dwp.jsa.security.encryption.EncryptionStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LazyBankDetailsPayloadTest {
+
+    private static final UUID ID = UUID.randomUUID();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final CountingEncryptionStrategy strategy = new CountingEncryptionStrategy();
+
+    @Mock
+    private ObjectProvider<DataKeyCache> dataKeyCache;
+
+    private BankDetailsRequest request;
+
+    @Before
+    public void setUp() {
+        request = new BankDetailsRequest();
+        request.setAccountHolder("Account Holder");
+        request.setAccountNumber("12345678");
+        request.setSortCode("112233");
+        request.setReference("reference");
+        request.setServiceVersion("v1");
+    }
+
+    @Test
+    public void givenPerFieldRow_Select_ShouldDecryptOnlyTheSelectedSecuredFields() {
+        LazyBankDetailsPayload payload = encryption(false).decryptLazily(ID, perFieldRow());
+
+        BankDetailsRequest selected = payload.select(Arrays.asList("sortCode", "serviceVersion"));
+
+        assertEquals(1, strategy.decryptions.get());
+        assertEquals(request.getSortCode(), selected.getSortCode());
+        assertEquals(request.getServiceVersion(), selected.getServiceVersion());
+        assertNull(selected.getAccountNumber());
+        assertNull(selected.getAccountHolder());
+    }
+
+    @Test
+    public void givenPerFieldRow_Get_ShouldDecryptEachFieldOnce() {
+        LazyBankDetailsPayload payload = encryption(false).decryptLazily(ID, perFieldRow());
+
+        payload.get("reference");
+        payload.get("reference");
+
+        assertEquals(1, strategy.decryptions.get());
+        assertEquals(request.getReference(), payload.get("reference").asText());
+    }
+
+    @Test
+    public void givenSingleEnvelopeRow_Select_ShouldDecryptTheEnvelopeOnce() {
+        BankDetailsRequestJsonEncryption encryption = encryption(true);
+        LazyBankDetailsPayload payload = encryption.decryptLazily(ID, encryption.encrypt(request));
+
+        BankDetailsRequest selected = payload.select(Arrays.asList("sortCode", "accountNumber"));
+
+        assertEquals(1, strategy.decryptions.get());
+        assertEquals(request.getSortCode(), selected.getSortCode());
+        assertEquals(request.getAccountNumber(), selected.getAccountNumber());
+        assertNull(selected.getReference());
+    }
+
+    @Test
+    public void givenUnsecuredFieldOnly_Select_ShouldNotDecrypt() {
+        BankDetailsRequestJsonEncryption encryption = encryption(true);
+        LazyBankDetailsPayload payload = encryption.decryptLazily(ID, encryption.encrypt(request));
+
+        BankDetailsRequest selected = payload.select(Collections.singleton("serviceVersion"));
+
+        assertEquals(0, strategy.decryptions.get());
+        assertEquals(request.getServiceVersion(), selected.getServiceVersion());
+        assertEquals(ID, payload.getId());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void givenEnvelopeWithoutFormat_Get_ShouldThrow() throws Exception {
+        BankDetailsRequestJsonEncryption encryption = encryption(true);
+        ObjectNode stored = (ObjectNode) mapper.readTree(encryption.encrypt(request));
+        stored.remove(BankDetailsRequestJsonEncryption.FORMAT_FIELD);
+
+        encryption.decryptLazily(ID, stored.toString()).get("sortCode");
+    }
+
+    private BankDetailsRequestJsonEncryption encryption(final boolean singleEnvelope) {
+        return new BankDetailsRequestJsonEncryption(strategy, mapper, dataKeyCache, false, singleEnvelope,
+                PipelineTimings.disabled());
+    }
+
+    private String perFieldRow() {
+        ObjectNode row = mapper.valueToTree(request);
+        for (String field : Arrays.asList("accountHolder", "sortCode", "accountNumber", "reference")) {
+            row.put(field, strategy.encrypt(row.get(field).asText()));
+        }
+        strategy.encryptions.set(0);
+        return row.toString();
+    }
+
+    private static final class CountingEncryptionStrategy implements EncryptionStrategy {
+        private final AtomicInteger encryptions = new AtomicInteger();
+        private final AtomicInteger decryptions = new AtomicInteger();
+
+        @Override
+        public String encrypt(final String value) {
+            encryptions.incrementAndGet();
+            return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String decrypt(final String value) {
+            decryptions.incrementAndGet();
+            return new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
+        }
+    }
+}
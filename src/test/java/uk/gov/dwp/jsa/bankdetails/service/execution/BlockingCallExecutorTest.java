@@ -0,0 +1,126 @@
+package uk.gov.dwp.jsa.bankdetails.service.execution;
+
+import brave.Tracing;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsServiceBusyException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BlockingCallExecutorTest {
+
+    private SimpleMeterRegistry registry;
+
+    private Tracing tracing;
+
+    private ThreadPoolExecutor pool;
+
+    private BlockingCallExecutor sut;
+
+    @Before
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        tracing = Tracing.newBuilder().build();
+        pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        sut = new BlockingCallExecutor(pool, registry, tracing);
+    }
+
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        sut.shutdown();
+        tracing.close();
+    }
+
+    @Test
+    public void givenInline_Supply_ShouldRunOnTheCallingThread() {
+        final Thread caller = Thread.currentThread();
+
+        CompletableFuture<Thread> result = BlockingCallExecutor.inline().supply(Thread::currentThread);
+
+        assertTrue(result.isDone());
+        assertSame(caller, result.join());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void givenInline_Supply_ShouldThrowTheFailure() {
+        BlockingCallExecutor.inline().supply(() -> {
+            throw new IllegalStateException();
+        });
+    }
+
+    @Test
+    public void givenPool_Supply_ShouldRunOnThePoolWithTheCallersContext() {
+        final Authentication authentication = new TestingAuthenticationToken("caller", null);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        final brave.Span span = tracing.tracer().nextSpan().start();
+        final Thread caller = Thread.currentThread();
+
+        try (brave.Tracer.SpanInScope ignored = tracing.tracer().withSpanInScope(span)) {
+            sut.supply(() -> {
+                assertNotEquals(caller, Thread.currentThread());
+                assertSame(authentication, SecurityContextHolder.getContext().getAuthentication());
+                assertNotNull(tracing.tracer().currentSpan());
+                assertEquals(span.context().traceId(), tracing.tracer().currentSpan().context().traceId());
+                return null;
+            }).join();
+        } finally {
+            span.finish();
+        }
+    }
+
+    @Test
+    public void givenPoolAndQueueFull_Supply_ShouldRefuseTheCall() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<Object> running = sut.supply(() -> {
+            started.countDown();
+            await(release);
+            return null;
+        });
+        started.await();
+        final CompletableFuture<Object> queued = sut.supply(() -> null);
+
+        try {
+            sut.supply(() -> null);
+            fail("Expected the call to be refused");
+        } catch (BankDetailsServiceBusyException e) {
+            assertEquals(1.0, registry.get(BlockingCallExecutor.REJECTED_COUNTER).counter().count(), 0.0);
+        } finally {
+            release.countDown();
+        }
+        running.join();
+        queued.join();
+    }
+
+    @Test
+    public void givenPool_Supply_ShouldPublishExecutorMetrics() {
+        sut.supply(() -> null).join();
+
+        assertNotNull(registry.find("executor.queued").tag("name", BlockingCallExecutor.METRIC_NAME).gauge());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package uk.gov.dwp.jsa.bankdetails.service.metrics;
+
+import brave.Tracing;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+public class PipelineTimingsTest {
+
+    private final MockClock clock = new MockClock();
+
+    private SimpleMeterRegistry registry;
+
+    private Tracing tracing;
+
+    private PipelineTimings sut;
+
+    @Before
+    public void setUp() {
+        registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+        tracing = Tracing.newBuilder().build();
+        sut = new PipelineTimings(registry, tracing.tracer());
+    }
+
+    @After
+    public void tearDown() {
+        tracing.close();
+    }
+
+    @Test
+    public void givenStage_Record_ShouldTimeItByOperationAndStage() {
+        assertEquals("result", sut.record(PipelineTimings.CREATE, PipelineTimings.HASH, () -> "result"));
+        sut.record(PipelineTimings.CREATE, PipelineTimings.HASH, () -> "result");
+        sut.record(PipelineTimings.CREATE, PipelineTimings.DB, () -> { });
+
+        assertEquals(2, timer(PipelineTimings.CREATE, PipelineTimings.HASH).count());
+        assertEquals(1, timer(PipelineTimings.CREATE, PipelineTimings.DB).count());
+    }
+
+    @Test
+    public void givenCurrentSpan_Record_ShouldRunTheStageInAChildSpan() {
+        brave.Span parent = tracing.tracer().nextSpan().start();
+        try (brave.Tracer.SpanInScope ignored = tracing.tracer().withSpanInScope(parent)) {
+            sut.record(PipelineTimings.GET, PipelineTimings.DB, () -> {
+                brave.Span current = tracing.tracer().currentSpan();
+                assertNotNull(current);
+                assertEquals(parent.context().traceId(), current.context().traceId());
+                assertEquals(parent.context().spanId(), (long) current.context().parentId());
+                return null;
+            });
+        } finally {
+            parent.finish();
+        }
+    }
+
+    @Test
+    public void givenFailingStage_Record_ShouldStillTimeIt() {
+        try {
+            sut.record(PipelineTimings.UPDATE, PipelineTimings.DB, () -> {
+                throw new IllegalStateException("failed");
+            });
+            fail("Expected the stage to fail");
+        } catch (IllegalStateException e) {
+            assertEquals(1, timer(PipelineTimings.UPDATE, PipelineTimings.DB).count());
+        }
+    }
+
+    @Test
+    public void givenNestedStage_Record_ShouldLeaveItOutOfTheOuterStage() {
+        sut.record(PipelineTimings.UPDATE, PipelineTimings.DB, () -> {
+            clock.add(3, TimeUnit.MILLISECONDS);
+            sut.time(PipelineTimings.ENCRYPT, PipelineTimings.FIELD, () -> clock.add(5, TimeUnit.MILLISECONDS));
+            clock.add(2, TimeUnit.MILLISECONDS);
+        });
+
+        assertEquals(5, timer(PipelineTimings.UPDATE, PipelineTimings.DB).totalTime(TimeUnit.MILLISECONDS), 0.0);
+        assertEquals(5, timer(PipelineTimings.ENCRYPT, PipelineTimings.FIELD).totalTime(TimeUnit.MILLISECONDS), 0.0);
+    }
+
+    @Test
+    public void givenTimingsDisabled_Time_ShouldOnlyRunTheStage() {
+        assertEquals("result", PipelineTimings.disabled().time(PipelineTimings.DECRYPT, PipelineTimings.FIELD,
+                () -> "result"));
+    }
+
+    private Timer timer(final String operation, final String stage) {
+        return registry.get(PipelineTimings.TIMER)
+                .tag(PipelineTimings.OPERATION_TAG, operation)
+                .tag(PipelineTimings.STAGE_TAG, stage)
+                .timer();
+    }
+}
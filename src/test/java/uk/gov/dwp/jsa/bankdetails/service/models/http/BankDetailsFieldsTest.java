@@ -0,0 +1,71 @@
+package uk.gov.dwp.jsa.bankdetails.service.models.http;
+
+import org.junit.Test;
+import org.springframework.beans.BeanUtils;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+
+import java.beans.PropertyDescriptor;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+public class BankDetailsFieldsTest {
+
+    @Test
+    public void givenEveryPropertySet_copy_ShouldCopyEveryProperty() throws Exception {
+        BankDetailsRequest source = populatedRequest();
+        BankDetailsRequest target = new BankDetailsRequest();
+
+        BankDetailsFields.copy(source, target);
+
+        for (PropertyDescriptor property : writableProperties()) {
+            assertEquals(property.getName(),
+                    property.getReadMethod().invoke(source), property.getReadMethod().invoke(target));
+        }
+    }
+
+    @Test
+    public void givenResponsesDifferingInOneProperty_equals_ShouldTellThemApart() throws Exception {
+        BankDetailsRequest request = populatedRequest();
+        UUID id = request.getId();
+        BankDetailsResponse expected = new BankDetailsResponse(new BankDetails(id, request, null));
+
+        for (PropertyDescriptor property : writableProperties()) {
+            BankDetailsResponse other = new BankDetailsResponse(new BankDetails(id, request, null));
+            property.getWriteMethod().invoke(other, (Object) null);
+            assertNotEquals(property.getName(), expected, other);
+        }
+        BankDetailsResponse same = new BankDetailsResponse(new BankDetails(id, request, null));
+        assertEquals(expected, same);
+        assertEquals(expected.hashCode(), same.hashCode());
+    }
+
+    private static BankDetailsRequest populatedRequest() throws Exception {
+        BankDetailsRequest request = new BankDetailsRequest();
+        for (PropertyDescriptor property : writableProperties()) {
+            property.getWriteMethod().invoke(request, sampleValueFor(property));
+        }
+        return request;
+    }
+
+    private static Object sampleValueFor(final PropertyDescriptor property) {
+        Class<?> type = property.getPropertyType();
+        if (type == String.class) {
+            return property.getName() + "-value";
+        }
+        if (type == UUID.class) {
+            return UUID.randomUUID();
+        }
+        fail("No sample value for " + property.getName() + ", add it to BankDetailsFields and this test");
+        return null;
+    }
+
+    private static PropertyDescriptor[] writableProperties() {
+        return Arrays.stream(BeanUtils.getPropertyDescriptors(BankDetailsRequest.class))
+                .filter(property -> property.getReadMethod() != null && property.getWriteMethod() != null)
+                .toArray(PropertyDescriptor[]::new);
+    }
+}
@@ -0,0 +1,52 @@
+package uk.gov.dwp.jsa.bankdetails.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.gov.dwp.jsa.bankdetails.service.config.BankDetailsServiceObjectMapperProvider;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetailsOutboxEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+public class FileEventSinkTest {
+
+    private final ObjectMapper mapper = new BankDetailsServiceObjectMapperProvider().get();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void givenBatches_Publish_ShouldAppendOneJsonLinePerEvent() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("events.ndjson");
+        FileEventSink sut = new FileEventSink(file, mapper);
+        BankDetailsChangeEvent created = event(1L, BankDetailsOutboxEvent.CREATED);
+        BankDetailsChangeEvent updated = event(2L, BankDetailsOutboxEvent.UPDATED);
+        BankDetailsChangeEvent deleted = event(3L, BankDetailsOutboxEvent.DELETED);
+
+        sut.publish(Arrays.asList(created, updated));
+        sut.publish(Collections.singletonList(deleted));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        assertEquals(created, mapper.readValue(lines.get(0), BankDetailsChangeEvent.class));
+        assertEquals(updated, mapper.readValue(lines.get(1), BankDetailsChangeEvent.class));
+        assertEquals(deleted, mapper.readValue(lines.get(2), BankDetailsChangeEvent.class));
+    }
+
+    private static BankDetailsChangeEvent event(final Long id, final String type) {
+        BankDetailsOutboxEvent event = new BankDetailsOutboxEvent(type, UUID.randomUUID(), UUID.randomUUID(), "hash");
+        event.setId(id);
+        event.setCreatedTimestamp(LocalDateTime.of(2020, 6, 1, 12, 0, id.intValue()));
+        return new BankDetailsChangeEvent(event);
+    }
+}
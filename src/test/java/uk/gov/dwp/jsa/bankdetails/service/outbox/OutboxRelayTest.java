@@ -0,0 +1,94 @@
+package uk.gov.dwp.jsa.bankdetails.service.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionOperations;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetailsOutboxEvent;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsOutboxRepository;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private BankDetailsOutboxRepository repository;
+
+    @Mock
+    private BankDetailsEventSink sink;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OutboxRelay sut;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sut = new OutboxRelay(repository, sink, TransactionOperations.withoutTransaction(), BATCH_SIZE,
+                meterRegistry);
+    }
+
+    @Test
+    public void givenEvents_Relay_ShouldPublishAndDeleteThemInBatches() throws IOException {
+        BankDetailsOutboxEvent first = event(1L);
+        BankDetailsOutboxEvent second = event(2L);
+        BankDetailsOutboxEvent third = event(3L);
+        when(repository.lockOldest(PageRequest.of(0, BATCH_SIZE)))
+                .thenReturn(Arrays.asList(first, second), Collections.singletonList(third));
+
+        sut.relay();
+
+        verify(sink).publish(Arrays.asList(new BankDetailsChangeEvent(first), new BankDetailsChangeEvent(second)));
+        verify(sink).publish(Collections.singletonList(new BankDetailsChangeEvent(third)));
+        verify(repository).deleteByIds(Arrays.asList(1L, 2L));
+        verify(repository).deleteByIds(Collections.singletonList(3L));
+        assertEquals(3.0, meterRegistry.get("bank_details.outbox.published").counter().count(), 0.0);
+    }
+
+    @Test
+    public void givenNoEvents_Relay_ShouldPublishNothing() throws IOException {
+        when(repository.lockOldest(any())).thenReturn(Collections.emptyList());
+
+        sut.relay();
+
+        verify(sink, never()).publish(any());
+        verify(repository, never()).deleteByIds(anyCollection());
+    }
+
+    @Test
+    public void givenSinkFailure_Relay_ShouldKeepTheEvents() throws IOException {
+        when(repository.lockOldest(any())).thenReturn(Arrays.asList(event(1L), event(2L)));
+        doThrow(new IOException("unavailable")).when(sink).publish(any());
+
+        sut.relay();
+
+        verify(sink, times(1)).publish(any());
+        verify(repository, never()).deleteByIds(anyCollection());
+    }
+
+    private static BankDetailsOutboxEvent event(final Long id) {
+        BankDetailsOutboxEvent event = new BankDetailsOutboxEvent(
+                BankDetailsOutboxEvent.UPDATED, UUID.randomUUID(), UUID.randomUUID(), "hash-" + id);
+        event.setId(id);
+        return event;
+    }
+}
@@ -0,0 +1,144 @@
+package uk.gov.dwp.jsa.bankdetails.service.repositories;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.Database;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetailsOutboxEvent;
+
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Runs the outbox queries against PostgreSQL, with the outbox table from its change script. Skipped without Docker.
+ */
+public class BankDetailsOutboxRepositoryTest {
+
+    private static final UUID ID = UUID.randomUUID();
+    private static final UUID CLAIM_ID = UUID.randomUUID();
+    private static final String HASH = "hash";
+
+    private static PostgreSQLContainer<?> postgres;
+    private static LocalContainerEntityManagerFactoryBean entityManagerFactory;
+
+    private EntityManager entityManager;
+    private BankDetailsOutboxRepository sut;
+
+    @BeforeClass
+    public static void startDatabase() throws SQLException {
+        assumeTrue("PostgreSQL runs in Docker", DockerClientFactory.instance().isDockerAvailable());
+        postgres = new PostgreSQLContainer<>("postgres:11-alpine");
+        postgres.start();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table bank_details (id uuid primary key, claim_id_uuid uuid not null unique, "
+                    + "hash text)");
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/changes/004-bank-details-outbox.sql"));
+        }
+
+        HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
+        vendorAdapter.setDatabase(Database.POSTGRESQL);
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setJpaVendorAdapter(vendorAdapter);
+        entityManagerFactory.setPackagesToScan();
+        entityManagerFactory.setPersistenceUnitPostProcessors(
+                unit -> unit.addManagedClassName(BankDetailsOutboxEvent.class.getName()));
+        entityManagerFactory.afterPropertiesSet();
+    }
+
+    @AfterClass
+    public static void stopDatabase() {
+        if (entityManagerFactory != null) {
+            entityManagerFactory.destroy();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        entityManager = entityManagerFactory.getObject().createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.createNativeQuery("insert into bank_details (id, claim_id_uuid, hash) values (?1, ?2, ?3)")
+                .setParameter(1, ID)
+                .setParameter(2, CLAIM_ID)
+                .setParameter(3, HASH)
+                .executeUpdate();
+        sut = new JpaRepositoryFactory(entityManager).getRepository(BankDetailsOutboxRepository.class);
+    }
+
+    @After
+    public void tearDown() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+    }
+
+    @Test
+    public void givenBankDetails_RecordUpdated_ShouldRecordAnEventFromTheRow() {
+        assertEquals(1, sut.recordUpdated(ID));
+
+        BankDetailsOutboxEvent event = events().get(0);
+        assertEquals(BankDetailsOutboxEvent.UPDATED, event.getEventType());
+        assertEquals(ID, event.getBankDetailsId());
+        assertEquals(CLAIM_ID, event.getClaimId());
+        assertEquals(HASH, event.getHash());
+        assertNotNull(event.getCreatedTimestamp());
+    }
+
+    @Test
+    public void givenBankDetails_RecordDeleted_ShouldRecordAnEventFromTheRow() {
+        assertEquals(1, sut.recordDeleted(ID));
+
+        assertEquals(BankDetailsOutboxEvent.DELETED, events().get(0).getEventType());
+    }
+
+    @Test
+    public void givenNoBankDetails_RecordUpdated_ShouldRecordNothing() {
+        assertEquals(0, sut.recordUpdated(UUID.randomUUID()));
+
+        assertTrue(events().isEmpty());
+    }
+
+    @Test
+    public void givenEventsSavedByHibernate_RecordUpdated_ShouldNotReuseTheirIds() {
+        sut.save(new BankDetailsOutboxEvent(BankDetailsOutboxEvent.CREATED, ID, CLAIM_ID, HASH));
+        sut.recordUpdated(ID);
+        sut.save(new BankDetailsOutboxEvent(BankDetailsOutboxEvent.CREATED, ID, CLAIM_ID, HASH));
+        sut.recordUpdated(ID);
+
+        Set<Long> ids = events().stream().map(BankDetailsOutboxEvent::getId).collect(Collectors.toSet());
+        assertEquals(4, ids.size());
+    }
+
+    private List<BankDetailsOutboxEvent> events() {
+        entityManager.flush();
+        entityManager.clear();
+        return StreamSupport.stream(sut.findAll().spliterator(), false).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,165 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsResponse;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class BankDetailsCacheTest {
+
+    private static final UUID ID = UUID.randomUUID();
+    private static final UUID CLAIM_ID = UUID.randomUUID();
+    private static final Long VERSION = 2L;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private BankDetails bankDetails;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        BankDetailsRequest request = new BankDetailsRequest();
+        request.setAccountHolder("Account Holder");
+        request.setAccountNumber("12345678");
+        request.setSortCode("112233");
+        request.setReference("reference");
+        bankDetails = new BankDetails(CLAIM_ID, request, "hash", "source", "version");
+        bankDetails.setId(ID);
+        bankDetails.setVersion(VERSION);
+    }
+
+    @Test
+    public void givenEncryptedCache_getById_ShouldLoadOnceAndReturnEqualResponses() {
+        BankDetailsCache sut = cache(true);
+
+        BankDetailsResponse first = sut.getById(ID, loader()).get().getBankDetails();
+        BankDetailsResponse second = sut.getById(ID, loader()).get().getBankDetails();
+
+        assertEquals(new BankDetailsResponse(bankDetails), first);
+        assertEquals(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void givenPlainCache_getByClaimId_ShouldHitAfterLoadById() {
+        BankDetailsCache sut = cache(false);
+
+        sut.getById(ID, loader());
+        BankDetailsResponse byClaim = sut.getByClaimId(CLAIM_ID, loader()).get().getBankDetails();
+
+        assertEquals(new BankDetailsResponse(bankDetails), byClaim);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void givenCachedEntry_getById_ShouldKeepTheHashAndVersionOfTheLoadedRow() {
+        BankDetailsCache sut = cache(true);
+        sut.getById(ID, loader());
+        bankDetails.setHash("newer-hash");
+        bankDetails.setVersion(VERSION + 1);
+
+        TaggedBankDetails cached = sut.getById(ID, loader()).get();
+
+        assertEquals("hash", cached.getHash());
+        assertEquals(VERSION, cached.getVersion());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void givenEvictedEntry_getByClaimId_ShouldLoadAgain() {
+        BankDetailsCache sut = cache(true);
+
+        sut.getByClaimId(CLAIM_ID, loader());
+        sut.evict(ID);
+        sut.getByClaimId(CLAIM_ID, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void givenEvictionWhileLoading_getById_ShouldNotCacheTheLoadedRow() {
+        BankDetailsCache sut = cache(true);
+
+        sut.getById(ID, evictingLoader(sut));
+        sut.getById(ID, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void givenEvictionWhileLoading_getByClaimId_ShouldNotCacheTheLoadedRow() {
+        BankDetailsCache sut = cache(true);
+
+        sut.getByClaimId(CLAIM_ID, evictingLoader(sut));
+        sut.getByClaimId(CLAIM_ID, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void givenMissingBankDetails_getById_ShouldNotCacheTheMiss() {
+        BankDetailsCache sut = cache(true);
+
+        assertFalse(sut.getById(ID, Optional::empty).isPresent());
+        sut.getById(ID, loader());
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void givenEnabledCache_ShouldRecordHitsAndMisses() {
+        BankDetailsCache sut = cache(true);
+
+        sut.getById(ID, loader());
+        sut.getById(ID, loader());
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "bankDetailsById")
+                .tag("result", "hit").functionCounter().count(), 0.0);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "bankDetailsById")
+                .tag("result", "miss").functionCounter().count(), 0.0);
+    }
+
+    @Test
+    public void givenDisabledCache_ShouldAlwaysLoad() {
+        BankDetailsCache sut = BankDetailsCache.disabled();
+
+        sut.getById(ID, loader());
+        sut.getById(ID, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    private BankDetailsCache cache(final boolean encrypted) {
+        return new BankDetailsCache(true, 10, Duration.ofMinutes(1), encrypted, new ObjectMapper(), meterRegistry);
+    }
+
+    /**
+     * Loads the row, then evicts it as a concurrent write would before the load is cached.
+     */
+    private Supplier<Optional<BankDetails>> evictingLoader(final BankDetailsCache sut) {
+        return () -> {
+            Optional<BankDetails> loaded = loader().get();
+            sut.evict(ID);
+            return loaded;
+        };
+    }
+
+    private Supplier<Optional<BankDetails>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return Optional.of(bankDetails);
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.InvalidChangeFeedCursorException;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsChange;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsChangePage;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BankDetailsChangeFeedServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2020, 6, 1, 12, 0);
+    private static final Duration SETTLE_TIME = Duration.ofSeconds(5);
+    private static final LocalDateTime BEFORE = NOW.minus(SETTLE_TIME);
+    private static final BankDetailsChange FIRST =
+            new BankDetailsChange(UUID.randomUUID(), UUID.randomUUID(), "hash-1", NOW.minusHours(2));
+    private static final BankDetailsChange SECOND =
+            new BankDetailsChange(UUID.randomUUID(), UUID.randomUUID(), "hash-2", NOW.minusHours(1));
+
+    @Mock
+    private BankDetailsRepository repository;
+
+    private BankDetailsChangeFeedService sut;
+
+    @Before
+    public void setUp() {
+        Clock clock = Clock.fixed(Instant.from(NOW.atOffset(ZoneOffset.UTC)), ZoneOffset.UTC);
+        sut = new BankDetailsChangeFeedService(repository, SETTLE_TIME, clock);
+    }
+
+    @Test
+    public void givenNoCursor_getChanges_ShouldReturnTheOldestSettledChangesAndACursorAfterThem() {
+        when(repository.findChanges(BEFORE, PageRequest.of(0, 2))).thenReturn(Arrays.asList(FIRST, SECOND));
+
+        BankDetailsChangePage page = sut.getChanges(null, 2);
+
+        assertEquals(Arrays.asList(FIRST, SECOND), page.getChanges());
+        ChangeFeedCursor next = ChangeFeedCursor.decode(page.getNextCursor());
+        assertEquals(SECOND.getUpdatedTimestamp(), next.getUpdatedTimestamp());
+        assertEquals(SECOND.getId(), next.getId());
+    }
+
+    @Test
+    public void givenCursor_getChanges_ShouldContinueAfterIt() {
+        String cursor = new ChangeFeedCursor(FIRST.getUpdatedTimestamp(), FIRST.getId()).encode();
+        when(repository.findChangesAfter(FIRST.getUpdatedTimestamp(), FIRST.getId(), BEFORE, PageRequest.of(0, 10)))
+                .thenReturn(Collections.singletonList(SECOND));
+
+        BankDetailsChangePage page = sut.getChanges(cursor, 10);
+
+        assertEquals(Collections.singletonList(SECOND), page.getChanges());
+        assertEquals(SECOND.getId(), ChangeFeedCursor.decode(page.getNextCursor()).getId());
+    }
+
+    @Test
+    public void givenNoNewerChanges_getChanges_ShouldHandBackTheSameCursor() {
+        String cursor = new ChangeFeedCursor(SECOND.getUpdatedTimestamp(), SECOND.getId()).encode();
+        when(repository.findChangesAfter(any(), any(), any(), any())).thenReturn(Collections.emptyList());
+
+        BankDetailsChangePage page = sut.getChanges(cursor, 10);
+
+        assertEquals(Collections.emptyList(), page.getChanges());
+        assertEquals(cursor, page.getNextCursor());
+    }
+
+    @Test
+    public void givenOversizedLimit_getChanges_ShouldCapThePageSize() {
+        when(repository.findChanges(any(), any())).thenReturn(Collections.emptyList());
+
+        sut.getChanges(null, Integer.MAX_VALUE);
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(repository).findChanges(eq(BEFORE), captor.capture());
+        assertEquals(BankDetailsChangeFeedService.MAX_PAGE_SIZE, captor.getValue().getPageSize());
+    }
+
+    @Test(expected = InvalidChangeFeedCursorException.class)
+    public void givenGarbledCursor_getChanges_ShouldRejectIt() {
+        sut.getChanges("not a cursor", 10);
+    }
+}
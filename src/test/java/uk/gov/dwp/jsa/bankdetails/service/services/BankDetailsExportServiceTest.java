@@ -0,0 +1,93 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.dwp.jsa.bankdetails.service.config.BankDetailsServiceObjectMapperProvider;
+import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsRepository;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BankDetailsExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2020, 6, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    private final ObjectMapper mapper = new BankDetailsServiceObjectMapperProvider().get();
+
+    @Mock
+    private BankDetailsRepository repository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private BankDetailsExportService sut;
+
+    @Before
+    public void setUp() {
+        sut = new BankDetailsExportService(repository, entityManager, mapper);
+    }
+
+    @Test
+    public void givenRowsInWindow_export_ShouldWriteOneLinePerRowAndDetachEach() throws Exception {
+        BankDetails first = bankDetails("11111111");
+        BankDetails second = bankDetails("22222222");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(repository.streamByUpdatedTimestamp(FROM, TO))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long lines = sut.export(BankDetailsExportService.Timestamp.UPDATED, FROM, TO, out);
+
+        String[] written = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines);
+        assertEquals(2, written.length);
+        JsonNode line = mapper.readTree(written[1]);
+        assertEquals(second.getId().toString(), line.get("id").asText());
+        assertEquals(second.getClaimId().toString(), line.get("claimId").asText());
+        assertEquals("22222222", line.get("bankDetails").get("accountNumber").asText());
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void givenCreatedWindow_export_ShouldStreamByCreatedTimestamp() throws Exception {
+        when(repository.streamByCreatedTimestamp(FROM, TO)).thenReturn(Stream.empty());
+
+        long lines = sut.export(BankDetailsExportService.Timestamp.CREATED, FROM, TO, new ByteArrayOutputStream());
+
+        assertEquals(0, lines);
+        verify(repository, never()).streamByUpdatedTimestamp(FROM, TO);
+    }
+
+    private static BankDetails bankDetails(final String accountNumber) {
+        BankDetailsRequest request = new BankDetailsRequest();
+        request.setAccountHolder("Account Holder");
+        request.setAccountNumber(accountNumber);
+        request.setSortCode("112233");
+        BankDetails bankDetails = new BankDetails(UUID.randomUUID(), request, "hash", "source", "1");
+        bankDetails.setId(UUID.randomUUID());
+        bankDetails.setUpdatedTimestamp(FROM.plusHours(1));
+        return bankDetails;
+    }
+}
@@ -1,30 +1,61 @@
 package uk.gov.dwp.jsa.bankdetails.service.services;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionOperations;
+import uk.gov.dwp.jsa.bankdetails.service.datasource.ReadRouting;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.BankDetailsBatchDecryption;
 import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsAlreadyExistsException;
 import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsByClaimIdNotFoundException;
 import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsByIdNotFoundException;
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsIdempotencyKeyReusedException;
+import uk.gov.dwp.jsa.bankdetails.service.exceptions.BankDetailsPreconditionFailedException;
+import uk.gov.dwp.jsa.bankdetails.service.metrics.PipelineTimings;
 import uk.gov.dwp.jsa.bankdetails.service.models.db.BankDetails;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsBatchItem;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsBatchResult;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsLookupResult;
 import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
 import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsResponse;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsMetadata;
 import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsRepository;
-
+import uk.gov.dwp.jsa.bankdetails.service.repositories.BankDetailsTag;
+import uk.gov.dwp.jsa.bankdetails.service.repositories.EncryptedBankDetails;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -38,6 +69,8 @@ public class BankDetailsServiceTest {
     private static final UUID GIVEN_BANKDETAILS_ID = UUID.randomUUID();
     private static final UUID GIVEN_UNKNOWN_BANKDETAILS_ID = UUID.randomUUID();
     private static final String EXPECTED_BANK_DETAILS_JSON = "MyJSON";
+    private static final Long CURRENT_VERSION = 3L;
+    private static final String IDEMPOTENCY_KEY = "key";
 
     private BankDetails buildExpectedBankDetails;
 
@@ -52,8 +85,16 @@ public class BankDetailsServiceTest {
     @Mock
     private BankDetailsRequest bankDetailsRequest;
 
+    @Mock
+    private BankDetailsOutbox outbox;
+
+    @Mock
+    private BankDetailsBatchDecryption batchDecryption;
+
     private BankDetailsRequest bankDetailsResponse;
 
+    private SimpleMeterRegistry meterRegistry;
+
 
     @Before
     public void setUp() throws Exception {
@@ -61,12 +102,20 @@ public class BankDetailsServiceTest {
         buildExpectedBankDetails.setId(EXPECTED_BANKDETAILS_ID);
 
         bankDetailsResponse = new BankDetailsResponse(buildExpectedBankDetails);
-        sut = new BankDetailsService(repository, mapper);
-
-        when(mapper.writeValueAsString(bankDetailsRequest)).thenReturn(EXPECTED_BANK_DETAILS_JSON);
+        meterRegistry = new SimpleMeterRegistry();
+        sut = new BankDetailsService(repository, mapper, TransactionOperations.withoutTransaction(),
+                BankDetailsCache.disabled(), outbox, ReadRouting.disabled(), PipelineTimings.disabled(), batchDecryption,
+                meterRegistry);
+
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(EXPECTED_BANK_DETAILS_JSON.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(mapper).writeValue(any(OutputStream.class), eq(bankDetailsRequest));
         when(repository.save(any())).thenReturn(buildExpectedBankDetails);
         when(repository.findById(GIVEN_BANKDETAILS_ID)).thenReturn(Optional.of(buildExpectedBankDetails));
-        when(repository.findByClaimId(GIVEN_CLAIM_ID.toString())).thenReturn(Optional.of(buildExpectedBankDetails));
+        when(repository.findTagById(GIVEN_BANKDETAILS_ID)).thenReturn(Optional.of(tag("fake-hash", CURRENT_VERSION)));
+        when(repository.updateBankDetails(any(), any(), any(), any(), any())).thenReturn(1);
+        when(repository.findByClaimId(GIVEN_CLAIM_ID)).thenReturn(Optional.of(buildExpectedBankDetails));
     }
 
     @Test
@@ -83,23 +132,109 @@ public class BankDetailsServiceTest {
 
         verify(repository, times(1)).save(captor.capture());
 
-        assertThat(captor.getValue().getClaimId(), is(GIVEN_CLAIM_ID.toString()));
+        assertThat(captor.getValue().getClaimId(), is(GIVEN_CLAIM_ID));
     }
 
     @Test
-    public void givenValidRequest_Save_ShouldMarshallRequest() throws JsonProcessingException {
+    public void givenValidRequest_Save_ShouldMarshallRequest() throws IOException {
         sut.save(GIVEN_CLAIM_ID, bankDetailsRequest);
 
         ArgumentCaptor<BankDetailsRequest> captor = ArgumentCaptor.forClass(BankDetailsRequest.class);
 
-        verify(mapper, times(1)).writeValueAsString(captor.capture());
+        verify(mapper, times(1)).writeValue(any(OutputStream.class), captor.capture());
 
         assertThat(captor.getValue(), is(bankDetailsRequest));
     }
 
+    @Test
+    public void givenValidRequest_Save_ShouldRecordACreatedEvent() {
+        sut.save(GIVEN_CLAIM_ID, bankDetailsRequest);
+
+        verify(outbox).recordCreated(EXPECTED_BANKDETAILS_ID, buildExpectedBankDetails.getClaimId(),
+                buildExpectedBankDetails.getHash());
+    }
+
+    @Test
+    public void givenRepeatedRequest_SaveIfAbsent_ShouldReturnTheExistingIdWithoutRecordingAnEvent() {
+        when(repository.insertIfAbsent(any(), eq(IDEMPOTENCY_KEY))).thenReturn(Optional.of(existing(IDEMPOTENCY_KEY)));
+
+        BankDetailsCreateResult result = sut.saveIfAbsent(GIVEN_CLAIM_ID, IDEMPOTENCY_KEY, bankDetailsRequest);
+
+        assertEquals(existing(IDEMPOTENCY_KEY), result);
+        verify(outbox, never()).recordCreated(any(), any(), any());
+    }
+
+    @Test(expected = BankDetailsAlreadyExistsException.class)
+    public void givenClaimCreatedUnderAnotherKey_SaveIfAbsent_ShouldReportAConflict() {
+        when(repository.insertIfAbsent(any(), any())).thenReturn(Optional.of(existing("another-key")));
+
+        sut.saveIfAbsent(GIVEN_CLAIM_ID, IDEMPOTENCY_KEY, bankDetailsRequest);
+    }
+
+    @Test(expected = BankDetailsIdempotencyKeyReusedException.class)
+    public void givenKeyReusedWithOtherBankDetails_SaveIfAbsent_ShouldRefuseTheRequest() {
+        when(repository.insertIfAbsent(any(), any())).thenReturn(Optional.of(
+                BankDetailsCreateResult.existing(EXPECTED_BANKDETAILS_ID, "other-hash", IDEMPOTENCY_KEY)));
+
+        sut.saveIfAbsent(GIVEN_CLAIM_ID, IDEMPOTENCY_KEY, bankDetailsRequest);
+    }
+
+    @Test
+    public void givenNewClaim_SaveIfAbsent_ShouldInsertInOneStatement() {
+        when(repository.insertIfAbsent(any(), any()))
+                .thenReturn(Optional.of(BankDetailsCreateResult.created(EXPECTED_BANKDETAILS_ID)));
+
+        BankDetailsCreateResult result = sut.saveIfAbsent(GIVEN_CLAIM_ID, IDEMPOTENCY_KEY, bankDetailsRequest);
+
+        assertEquals(BankDetailsCreateResult.created(EXPECTED_BANKDETAILS_ID), result);
+        ArgumentCaptor<BankDetails> captor = ArgumentCaptor.forClass(BankDetails.class);
+        verify(repository, times(1)).insertIfAbsent(captor.capture(), eq(IDEMPOTENCY_KEY));
+        assertThat(captor.getValue().getClaimId(), is(GIVEN_CLAIM_ID));
+        assertThat(captor.getValue().getHash(), is(DigestUtils.sha256Hex(EXPECTED_BANK_DETAILS_JSON)));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    public void givenConcurrentCreateNotYetVisible_SaveIfAbsent_ShouldRetryAndReturnTheExistingId() {
+        when(repository.insertIfAbsent(any(), any()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(existing(IDEMPOTENCY_KEY)));
+
+        BankDetailsCreateResult result = sut.saveIfAbsent(GIVEN_CLAIM_ID, IDEMPOTENCY_KEY, bankDetailsRequest);
+
+        assertEquals(existing(IDEMPOTENCY_KEY), result);
+        verify(repository, times(2)).insertIfAbsent(any(), any());
+    }
+
+    @Test(expected = BankDetailsAlreadyExistsException.class)
+    public void givenConcurrentCreateNeverVisible_SaveIfAbsent_ShouldReportAConflict() {
+        when(repository.insertIfAbsent(any(), any())).thenReturn(Optional.empty());
+        sut.saveIfAbsent(GIVEN_CLAIM_ID, IDEMPOTENCY_KEY, bankDetailsRequest);
+    }
+
+    private static BankDetailsCreateResult existing(final String idempotencyKey) {
+        return BankDetailsCreateResult.existing(EXPECTED_BANKDETAILS_ID,
+                DigestUtils.sha256Hex(EXPECTED_BANK_DETAILS_JSON), idempotencyKey);
+    }
+
+    @Test
+    public void givenCacheEnabled_getBankDetailsById_ShouldLoadTheEntryFromThePrimary() {
+        ReadRouting readRouting = mock(ReadRouting.class);
+        sut = new BankDetailsService(repository, mapper, TransactionOperations.withoutTransaction(),
+                new BankDetailsCache(true, 10, Duration.ofMinutes(5), false, new ObjectMapper(), meterRegistry),
+                outbox, readRouting, PipelineTimings.disabled(), batchDecryption, meterRegistry);
+
+        assertEquals(EXPECTED_BANKDETAILS_ID, sut.getBankDetailsById(GIVEN_BANKDETAILS_ID).getBankDetails().getId());
+
+        verify(readRouting, never()).fromReplica(any());
+    }
+
     @Test
     public void givenValidBankDetailsId_getBankDetailsById_ShouldReturnExpectedBankDetails() {
-        assertEquals(bankDetailsResponse, sut.getBankDetailsById(GIVEN_BANKDETAILS_ID));
+        TaggedBankDetails tagged = sut.getBankDetailsById(GIVEN_BANKDETAILS_ID);
+
+        assertEquals(bankDetailsResponse, tagged.getBankDetails());
+        assertEquals("fake-hash", tagged.getHash());
     }
 
     @Test(expected = BankDetailsByIdNotFoundException.class)
@@ -109,7 +244,7 @@ public class BankDetailsServiceTest {
 
     @Test
     public void givenValidClaimId_getBankDetailsByClaimId_ShouldReturnExpectedBankDetailsList() {
-        assertEquals(bankDetailsResponse, sut.getBankDetailsByClaimId(GIVEN_CLAIM_ID));
+        assertEquals(bankDetailsResponse, sut.getBankDetailsByClaimId(GIVEN_CLAIM_ID).getBankDetails());
     }
 
     @Test(expected = BankDetailsByClaimIdNotFoundException.class)
@@ -117,39 +252,261 @@ public class BankDetailsServiceTest {
         assertNull(sut.getBankDetailsByClaimId(GIVEN_UNKNOWN_CLAIM_ID));
     }
 
+    @Test
+    public void givenValidClaimId_getMetadataByClaimId_ShouldReadTheProjectionOnly() {
+        BankDetailsMetadata metadata = mock(BankDetailsMetadata.class);
+        when(repository.findMetadataByClaimId(GIVEN_CLAIM_ID)).thenReturn(Optional.of(metadata));
+
+        assertEquals(metadata, sut.getMetadataByClaimId(GIVEN_CLAIM_ID));
+        verify(repository, never()).findByClaimId(any());
+    }
+
+    @Test(expected = BankDetailsByClaimIdNotFoundException.class)
+    public void givenUnknownClaimId_getMetadataByClaimId_ShouldThrowNotFound() {
+        sut.getMetadataByClaimId(GIVEN_UNKNOWN_CLAIM_ID);
+    }
+
+    @Test
+    public void givenClaimIds_getBankDetailsByClaimIds_ShouldReturnResultPerClaimIdInRequestOrder() {
+        when(repository.findEncryptedByClaimIdIn(anyCollection())).thenReturn(Collections.singletonList(
+                new EncryptedBankDetails(EXPECTED_BANKDETAILS_ID, GIVEN_CLAIM_ID, "encrypted")));
+        when(batchDecryption.decryptAll(Collections.singletonList("encrypted")))
+                .thenReturn(Collections.singletonList(buildExpectedBankDetails.getBankDetailsJson()));
+
+        Map<UUID, BankDetailsLookupResult> results = sut.getBankDetailsByClaimIds(
+                Arrays.asList(GIVEN_UNKNOWN_CLAIM_ID, GIVEN_CLAIM_ID, GIVEN_UNKNOWN_CLAIM_ID));
+
+        assertThat(results.keySet(), contains(GIVEN_UNKNOWN_CLAIM_ID, GIVEN_CLAIM_ID));
+        assertEquals(BankDetailsLookupResult.notFound(), results.get(GIVEN_UNKNOWN_CLAIM_ID));
+        assertEquals(BankDetailsLookupResult.found(bankDetailsResponse), results.get(GIVEN_CLAIM_ID));
+        verify(repository, times(1)).findEncryptedByClaimIdIn(anyCollection());
+    }
+
+    @Test
+    public void givenMoreClaimIdsThanChunkSize_getBankDetailsByClaimIds_ShouldQueryInChunks() {
+        UUID[] claimIds = new UUID[BankDetailsService.CLAIM_ID_LOOKUP_CHUNK_SIZE + 1];
+        for (int i = 0; i < claimIds.length; i++) {
+            claimIds[i] = UUID.randomUUID();
+        }
+
+        Map<UUID, BankDetailsLookupResult> results = sut.getBankDetailsByClaimIds(Arrays.asList(claimIds));
+
+        assertEquals(claimIds.length, results.size());
+        verify(repository, times(2)).findEncryptedByClaimIdIn(anyCollection());
+    }
+
+    @Test
+    public void givenBatchWithExistingAndDuplicateClaims_SaveAll_ShouldReportConflictsPerItem() {
+        UUID newClaimId = UUID.randomUUID();
+        when(repository.findExistingClaimIds(anyCollection()))
+                .thenReturn(Collections.singletonList(GIVEN_CLAIM_ID));
+        doAnswer(invocation -> {
+            Iterable<BankDetails> entities = invocation.getArgument(0);
+            entities.forEach(entity -> entity.setId(EXPECTED_BANKDETAILS_ID));
+            return entities;
+        }).when(repository).saveAll(anyIterable());
+
+        List<BankDetailsBatchResult> results = sut.saveAll(Arrays.asList(
+                new BankDetailsBatchItem(GIVEN_CLAIM_ID, bankDetailsRequest),
+                new BankDetailsBatchItem(newClaimId, bankDetailsRequest),
+                new BankDetailsBatchItem(newClaimId, bankDetailsRequest)));
+
+        assertThat(results, contains(
+                BankDetailsBatchResult.conflict(GIVEN_CLAIM_ID),
+                BankDetailsBatchResult.created(newClaimId, EXPECTED_BANKDETAILS_ID),
+                BankDetailsBatchResult.conflict(newClaimId)));
+        verify(repository, times(1)).saveAll(anyIterable());
+    }
+
+    @Test
+    public void givenBatchInsertRace_SaveAll_ShouldFallBackToSingleInserts() {
+        UUID racedClaimId = UUID.randomUUID();
+        when(repository.findExistingClaimIds(anyCollection())).thenReturn(Collections.emptyList());
+        when(repository.saveAll(anyIterable())).thenThrow(new DataIntegrityViolationException("erro"));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            BankDetails entity = invocation.getArgument(0);
+            if (entity.getClaimId().equals(racedClaimId)) {
+                throw new DataIntegrityViolationException("erro");
+            }
+            entity.setId(EXPECTED_BANKDETAILS_ID);
+            return entity;
+        });
+
+        List<BankDetailsBatchResult> results = sut.saveAll(Arrays.asList(
+                new BankDetailsBatchItem(racedClaimId, bankDetailsRequest),
+                new BankDetailsBatchItem(GIVEN_CLAIM_ID, bankDetailsRequest)));
+
+        assertThat(results, contains(
+                BankDetailsBatchResult.conflict(racedClaimId),
+                BankDetailsBatchResult.created(GIVEN_CLAIM_ID, EXPECTED_BANKDETAILS_ID)));
+    }
+
+    @Test
+    public void givenMixedBatchThatFailsAfterPersisting_SaveAll_ShouldInsertTheNewRowsAsNewEntities() {
+        UUID duplicateClaimId = UUID.randomUUID();
+        UUID newClaimId = UUID.randomUUID();
+        UUID createdId = UUID.randomUUID();
+        when(repository.findExistingClaimIds(anyCollection())).thenReturn(Collections.emptyList());
+        when(repository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            invocation.<Iterable<BankDetails>>getArgument(0).forEach(entity -> {
+                entity.setId(UUID.randomUUID());
+                entity.setVersion(0L);
+            });
+            throw new DataIntegrityViolationException("erro");
+        });
+        when(repository.save(any())).thenAnswer(invocation -> {
+            BankDetails entity = invocation.getArgument(0);
+            assertNull(entity.getId());
+            assertNull(entity.getVersion());
+            if (entity.getClaimId().equals(duplicateClaimId)) {
+                throw new DataIntegrityViolationException("erro");
+            }
+            BankDetails persisted = new BankDetails(entity.getClaimId(), entity.getBankDetailsJson(),
+                    entity.getHash(), entity.getSource(), entity.getServiceVersion());
+            persisted.setId(createdId);
+            return persisted;
+        });
+
+        List<BankDetailsBatchResult> results = sut.saveAll(Arrays.asList(
+                new BankDetailsBatchItem(newClaimId, bankDetailsRequest),
+                new BankDetailsBatchItem(duplicateClaimId, bankDetailsRequest)));
+
+        assertThat(results, contains(
+                BankDetailsBatchResult.created(newClaimId, createdId),
+                BankDetailsBatchResult.conflict(duplicateClaimId)));
+        verify(outbox).recordCreated(eq(createdId), eq(newClaimId), any());
+    }
+
     @Test
     public void testGivenValidClaimantIdShouldDeleteTheExpectedData() {
+        when(repository.deleteBankDetailsById(EXPECTED_BANKDETAILS_ID)).thenReturn(1);
+
         sut.delete(EXPECTED_BANKDETAILS_ID);
 
         ArgumentCaptor<UUID> captor = ArgumentCaptor.forClass(UUID.class);
-        verify(repository, times(1)).deleteById(captor.capture());
+        verify(repository, times(1)).deleteBankDetailsById(captor.capture());
         assertThat(captor.getValue(), is(EXPECTED_BANKDETAILS_ID));
+        verify(repository, never()).findById(any());
+    }
+
+    @Test(expected = BankDetailsByIdNotFoundException.class)
+    public void givenUnknownId_Delete_ShouldThrowNotFound() {
+        sut.delete(GIVEN_UNKNOWN_BANKDETAILS_ID);
     }
 
     @Test
-    public void givenValidRequest_Update_ShouldReturnExpectedBankDetailsId() {
-        UUID claimId = sut.update(GIVEN_BANKDETAILS_ID, bankDetailsRequest);
-        assertEquals(EXPECTED_BANKDETAILS_ID, claimId);
+    public void givenValidId_Delete_ShouldRecordTheEventBeforeDeleting() {
+        when(repository.deleteBankDetailsById(EXPECTED_BANKDETAILS_ID)).thenReturn(1);
+
+        sut.delete(EXPECTED_BANKDETAILS_ID);
+
+        InOrder inOrder = inOrder(outbox, repository);
+        inOrder.verify(outbox).recordDeleted(EXPECTED_BANKDETAILS_ID);
+        inOrder.verify(repository).deleteBankDetailsById(EXPECTED_BANKDETAILS_ID);
     }
 
     @Test
-    public void givenValidRequest_Update_ShouldUpdateTheExpectedDataToRepository() {
+    public void givenValidRequest_Update_ShouldRecordAnUpdatedEvent() {
         sut.update(GIVEN_BANKDETAILS_ID, bankDetailsRequest);
 
-        ArgumentCaptor<BankDetails> captor = ArgumentCaptor.forClass(BankDetails.class);
+        verify(outbox).recordUpdated(GIVEN_BANKDETAILS_ID);
+    }
 
-        verify(repository, times(1)).save(captor.capture());
+    @Test
+    public void givenUnchangedRequest_Update_ShouldNotRecordAnEvent() {
+        givenStoredHashMatchesTheRequest();
+
+        sut.update(GIVEN_BANKDETAILS_ID, bankDetailsRequest);
+
+        verify(outbox, never()).recordUpdated(any());
+    }
+
+    @Test
+    public void givenValidRequest_Update_ShouldReturnTheIdWithTheHashAndVersionItWrote() {
+        BankDetailsTag written = tag(DigestUtils.sha256Hex(EXPECTED_BANK_DETAILS_JSON), CURRENT_VERSION + 1);
+        when(repository.findTagById(GIVEN_BANKDETAILS_ID))
+                .thenReturn(Optional.of(tag("fake-hash", CURRENT_VERSION)), Optional.of(written));
 
-        assertThat(captor.getValue().getClaimId(), is(GIVEN_CLAIM_ID.toString()));
+        BankDetailsUpdateResult result = sut.update(GIVEN_BANKDETAILS_ID, bankDetailsRequest);
+
+        assertEquals(BankDetailsUpdateResult.modified(GIVEN_BANKDETAILS_ID, written), result);
     }
 
     @Test
-    public void givenValidRequest_Updae_ShouldMarshallRequest() throws JsonProcessingException {
+    public void givenUnchangedRequest_Update_ShouldReportItUnmodifiedAndCountIt() {
+        givenStoredHashMatchesTheRequest();
+
+        BankDetailsUpdateResult result = sut.update(GIVEN_BANKDETAILS_ID, bankDetailsRequest);
+
+        assertEquals(BankDetailsUpdateResult.notModified(GIVEN_BANKDETAILS_ID, storedTag()), result);
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any());
+        verify(repository, never()).updateBankDetails(any(), any(), any(), any(), any());
+        assertEquals(1.0, meterRegistry.get("bank_details.update.unmodified").counter().count(), 0.0);
+    }
+
+    @Test(expected = BankDetailsByIdNotFoundException.class)
+    public void givenUnknownId_Update_ShouldThrowNotFound() {
+        sut.update(GIVEN_UNKNOWN_BANKDETAILS_ID, bankDetailsRequest);
+    }
+
+    @Test
+    public void givenConcurrentWriteOfTheSameBankDetails_Update_ShouldReportItUnmodified() {
+        when(repository.updateBankDetails(any(), any(), any(), any(), any())).thenReturn(0);
+
+        BankDetailsUpdateResult result = sut.update(GIVEN_BANKDETAILS_ID, bankDetailsRequest);
+
+        assertEquals(BankDetailsUpdateResult.notModified(GIVEN_BANKDETAILS_ID, tag("fake-hash", CURRENT_VERSION)),
+                result);
+        verify(repository, times(2)).findTagById(GIVEN_BANKDETAILS_ID);
+    }
+
+    @Test
+    public void givenValidRequest_Update_ShouldWriteInASingleStatement() {
+        sut.update(GIVEN_BANKDETAILS_ID, bankDetailsRequest);
+
+        verify(repository).updateBankDetails(GIVEN_BANKDETAILS_ID, bankDetailsRequest,
+                DigestUtils.sha256Hex(EXPECTED_BANK_DETAILS_JSON), "AGENT", null);
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    public void givenCurrentVersion_Update_ShouldWriteOnlyAtThatVersion() {
+        when(repository.updateBankDetailsIfVersion(any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        BankDetailsUpdateResult result = sut.update(GIVEN_BANKDETAILS_ID, bankDetailsRequest, CURRENT_VERSION);
+
+        assertTrue(result.isModified());
+        verify(repository).updateBankDetailsIfVersion(GIVEN_BANKDETAILS_ID, CURRENT_VERSION, bankDetailsRequest,
+                DigestUtils.sha256Hex(EXPECTED_BANK_DETAILS_JSON), "AGENT", null);
+    }
+
+    @Test(expected = BankDetailsPreconditionFailedException.class)
+    public void givenStaleVersion_Update_ShouldFailThePrecondition() {
+        try {
+            sut.update(GIVEN_BANKDETAILS_ID, bankDetailsRequest, CURRENT_VERSION - 1);
+        } finally {
+            verify(repository, never()).updateBankDetailsIfVersion(any(), any(), any(), any(), any(), any());
+        }
+    }
+
+    @Test
+    public void givenCurrentVersionAndUnchangedRequest_Update_ShouldReportItUnmodified() {
+        givenStoredHashMatchesTheRequest();
+
+        BankDetailsUpdateResult result = sut.update(GIVEN_BANKDETAILS_ID, bankDetailsRequest, CURRENT_VERSION);
+
+        assertEquals(BankDetailsUpdateResult.notModified(GIVEN_BANKDETAILS_ID, storedTag()), result);
+    }
+
+    @Test
+    public void givenValidRequest_Updae_ShouldMarshallRequest() throws IOException {
         sut.update(GIVEN_BANKDETAILS_ID, bankDetailsRequest);
 
         ArgumentCaptor<BankDetailsRequest> captor = ArgumentCaptor.forClass(BankDetailsRequest.class);
 
-        verify(mapper, times(1)).writeValueAsString(captor.capture());
+        verify(mapper, times(1)).writeValue(any(OutputStream.class), captor.capture());
 
         assertThat(captor.getValue(), is(bankDetailsRequest));
     }
@@ -161,15 +518,38 @@ public class BankDetailsServiceTest {
         sut.save(GIVEN_CLAIM_ID, bankDetailsRequest);
     }
 
-    @Test(expected = BankDetailsAlreadyExistsException.class)
-    public void givenWrongRequest_Update_ShouldReturnExpectedBankDetailsId() {
-        when(this.repository.save(any())).thenThrow(new DataIntegrityViolationException("erro"));
+    @Test(expected = DataIntegrityViolationException.class)
+    public void givenDataIntegrityViolation_Update_ShouldNotReportItAsAConflict() {
+        when(this.repository.updateBankDetails(any(), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("erro"));
         sut.update(GIVEN_BANKDETAILS_ID, bankDetailsRequest);
     }
 
+    private void givenStoredHashMatchesTheRequest() {
+        when(repository.findTagById(GIVEN_BANKDETAILS_ID)).thenReturn(Optional.of(storedTag()));
+    }
+
+    private static BankDetailsTag storedTag() {
+        return tag(DigestUtils.sha256Hex(EXPECTED_BANK_DETAILS_JSON), CURRENT_VERSION);
+    }
+
+    private static BankDetailsTag tag(final String hash, final Long version) {
+        return new BankDetailsTag() {
+            @Override
+            public String getHash() {
+                return hash;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
     private BankDetails buildExpectedBankDetails() {
         return new BankDetails(
-                GIVEN_CLAIM_ID.toString(),
+                GIVEN_CLAIM_ID,
                 bankDetailsRequest,
                 "fake-hash",
                 "fake-source",
@@ -0,0 +1,24 @@
+package uk.gov.dwp.jsa.bankdetails.service.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Test;
+import uk.gov.dwp.jsa.bankdetails.service.config.BankDetailsServiceObjectMapperProvider;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+
+import static org.junit.Assert.assertEquals;
+
+public class JsonDigestTest {
+
+    private final ObjectMapper mapper = new BankDetailsServiceObjectMapperProvider().get();
+
+    @Test
+    public void givenRequest_sha256Hex_ShouldMatchTheHashOfItsJsonString() throws Exception {
+        BankDetailsRequest request = new BankDetailsRequest();
+        request.setAccountHolder("Mr Åccount Hölder");
+        request.setAccountNumber("12345678");
+        request.setSortCode("112233");
+
+        assertEquals(DigestUtils.sha256Hex(mapper.writeValueAsString(request)), JsonDigest.sha256Hex(mapper, request));
+    }
+}
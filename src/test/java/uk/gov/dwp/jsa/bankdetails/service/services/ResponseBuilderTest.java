@@ -22,6 +22,16 @@ public class ResponseBuilderTest {
         assertEquals(HttpStatus.OK, build.getStatusCode());
     }
 
+    @Test
+    public void with_header_should_build_and_contain_expected_header() {
+        ResponseBuilder<String> builder = new ResponseBuilder<>();
+        builder.withStatus(HttpStatus.OK).withHeader("name", "value");
+
+        ResponseEntity<ApiResponse<String>> build = builder.build();
+
+        assertEquals("value", build.getHeaders().getFirst("name"));
+    }
+
     @Test(expected = NullPointerException.class)
     public void without_status_build_should_fail() {
         ResponseBuilder builder = new ResponseBuilder();
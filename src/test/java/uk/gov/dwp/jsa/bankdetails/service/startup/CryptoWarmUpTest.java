@@ -0,0 +1,48 @@
+package uk.gov.dwp.jsa.bankdetails.service.startup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import uk.gov.dwp.jsa.bankdetails.service.encryption.BankDetailsRequestJsonEncryption;
+import uk.gov.dwp.jsa.bankdetails.service.models.http.BankDetailsRequest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CryptoWarmUpTest {
+
+    private static final String ENCRYPTED = "encrypted";
+
+    @Mock
+    private BankDetailsRequestJsonEncryption encryption;
+
+    private CryptoWarmUp sut;
+
+    @Before
+    public void setUp() {
+        sut = new CryptoWarmUp(encryption);
+        when(encryption.encrypt(any(BankDetailsRequest.class))).thenReturn(ENCRYPTED);
+    }
+
+    @Test
+    public void givenRoundTrip_Run_ShouldEncryptAndDecryptTheProbe() {
+        BankDetailsRequest probe = new BankDetailsRequest();
+        probe.setAccountHolder(CryptoWarmUp.PROBE);
+        when(encryption.decrypt(ENCRYPTED)).thenReturn(probe);
+
+        sut.run(null);
+
+        verify(encryption).decrypt(ENCRYPTED);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void givenBrokenRoundTrip_Run_ShouldFailStartup() {
+        when(encryption.decrypt(ENCRYPTED)).thenReturn(new BankDetailsRequest());
+
+        sut.run(null);
+    }
+}
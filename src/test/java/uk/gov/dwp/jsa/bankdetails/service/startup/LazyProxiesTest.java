@@ -0,0 +1,37 @@
+package uk.gov.dwp.jsa.bankdetails.service.startup;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class LazyProxiesTest {
+
+    @Test
+    public void givenProxy_ShouldCreateTheTargetOnceOnFirstCall() {
+        final AtomicInteger created = new AtomicInteger();
+
+        Greeter greeter = LazyProxies.create(Greeter.class, () -> {
+            created.incrementAndGet();
+            return new Greeter("hello");
+        });
+
+        assertEquals(0, created.get());
+        assertEquals("hello world", greeter.greet("world"));
+        assertEquals("hello again", greeter.greet("again"));
+        assertEquals(1, created.get());
+    }
+
+    public static class Greeter {
+        private final String greeting;
+
+        public Greeter(final String greeting) {
+            this.greeting = greeting;
+        }
+
+        public String greet(final String name) {
+            return greeting + " " + name;
+        }
+    }
+}
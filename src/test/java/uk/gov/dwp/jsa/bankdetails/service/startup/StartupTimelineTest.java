@@ -0,0 +1,52 @@
+package uk.gov.dwp.jsa.bankdetails.service.startup;
+
+import org.junit.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StartupTimelineTest {
+
+    private static final long JVM_START = 1_000L;
+
+    private final AtomicLong now = new AtomicLong(JVM_START);
+
+    private final StartupTimeline sut = new StartupTimeline(JVM_START, now::get);
+
+    @Test
+    public void givenEvents_ShouldMarkEachPhaseSinceJvmStart() {
+        SpringApplication application = new SpringApplication();
+        now.set(JVM_START + 100);
+        sut.onApplicationEvent(new ApplicationStartingEvent(application, new String[0]));
+        now.set(JVM_START + 250);
+        sut.onApplicationEvent(new ApplicationEnvironmentPreparedEvent(application, new String[0],
+                new MockEnvironment().withProperty(StartupTimeline.ENABLED_PROPERTY, "true")));
+
+        assertEquals(Long.valueOf(100), sut.getPhases().get("starting"));
+        assertEquals(Long.valueOf(250), sut.getPhases().get("environment prepared"));
+    }
+
+    @Test
+    public void givenNestedBeans_ShouldTimeEachWithoutItsDependencies() throws Exception {
+        StartupTimeline.BeanTimings timings = sut.getBeanTimings();
+
+        timings.postProcessBeforeInstantiation(Object.class, "outer");
+        timings.postProcessBeforeInstantiation(Object.class, "inner");
+        Thread.sleep(20);
+        timings.postProcessAfterInitialization(new Object(), "inner");
+        timings.postProcessAfterInitialization(new Object(), "outer");
+
+        Map<String, Long> slowest = sut.slowestBeans();
+        assertThat(slowest.keySet(), contains("inner", "outer"));
+        assertTrue(slowest.get("outer") < slowest.get("inner"));
+    }
+}